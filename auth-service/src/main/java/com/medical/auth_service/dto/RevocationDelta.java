@@ -0,0 +1,6 @@
+package com.medical.auth_service.dto;
+
+import java.util.List;
+
+public record RevocationDelta(long sequence, List<String> jtis) {
+}
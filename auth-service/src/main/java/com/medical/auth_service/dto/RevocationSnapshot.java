@@ -0,0 +1,8 @@
+package com.medical.auth_service.dto;
+
+/**
+ * Bloom filter of every revoked, not yet expired access token id, as of {@code sequence}.
+ * Gateways load it once and then poll /auth/revocations?since=sequence for deltas.
+ */
+public record RevocationSnapshot(long sequence, int numBits, int numHashes, String bits) {
+}
@@ -0,0 +1,4 @@
+package com.medical.auth_service.dto;
+
+public record TokenPair(String accessToken, String refreshToken) {
+}
@@ -0,0 +1,8 @@
+package com.medical.auth_service.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** Read model of a user, without credentials. */
+public record UserView(UUID id, String email, String role, boolean enabled, LocalDateTime createdAt) {
+}
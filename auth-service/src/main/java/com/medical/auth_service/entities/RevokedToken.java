@@ -0,0 +1,37 @@
+package com.medical.auth_service.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires", columnList = "expires_at"),
+        @Index(name = "idx_revoked_tokens_jti", columnList = "jti"),
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at")})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RevokedToken {
+    // Gateways' delta cursor; assigned at insert, so rows can commit out of sequence order
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long sequence;
+
+    @Column(nullable = false, length = 64)
+    private String jti;
+
+    private LocalDateTime expiresAt; // access token expiry, the entry is useless afterwards
+
+    private LocalDateTime revokedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        revokedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,29 @@
+package com.medical.auth_service.repositories;
+
+import com.medical.auth_service.entities.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+    // Sequences are assigned at insert, not commit: recent rows are re-read in case a lower one committed late
+    @Query("SELECT r FROM RevokedToken r WHERE r.sequence > :since OR r.revokedAt > :recent ORDER BY r.sequence")
+    List<RevokedToken> findRevokedSince(@Param("since") long since, @Param("recent") LocalDateTime recent);
+
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+
+    boolean existsByJti(String jti);
+
+    @Query("SELECT COALESCE(MAX(r.sequence), 0) FROM RevokedToken r")
+    long findLatestSequence();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,7 +1,13 @@
 package com.medical.auth_service.repositories;
 
+import com.medical.auth_service.dto.UserView;
 import com.medical.auth_service.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -9,4 +15,8 @@ import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT new com.medical.auth_service.dto.UserView(u.id, u.email, u.role, u.enabled, u.createdAt) "
+            + "FROM User u WHERE u.id IN :ids")
+    List<UserView> findViewsByIdIn(@Param("ids") Collection<UUID> ids);
 }
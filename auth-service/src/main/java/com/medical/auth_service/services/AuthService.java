@@ -1,16 +1,24 @@
 package com.medical.auth_service.services;
 
+import com.medical.auth_service.dto.TokenPair;
+import com.medical.auth_service.dto.UserView;
 import com.medical.auth_service.entities.User;
 import com.medical.auth_service.repositories.UserRepository;
 import com.medical.auth_service.util.JwtUtils;
+import com.medical.jwt_validation.JwtVerifier;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +27,11 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
+    private final JwtVerifier jwtVerifier;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final TokenService tokenService;
+    private final UserDirectory userDirectory;
+    private final Executor applicationTaskExecutor;
     private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
 
     public String register(User user) {
@@ -39,27 +52,59 @@ public class AuthService {
             user.setRole("PATIENT");
         }
         userRepository.save(user);
+        userDirectory.put(user);
         return jwtUtils.generateToken(user.getEmail(), user.getRole());
     }
 
-    public String login(String email, String password) {
+    /**
+     * Completes with an access/refresh token pair, or exceptionally with
+     * {@link BadCredentialsException} when the credentials are wrong.
+     * Throws RejectedExecutionException right away when the hashing queue is full.
+     */
+    public CompletableFuture<TokenPair> login(String email, String password) {
         Optional<User> userOpt = userRepository.findByEmail(email);
-        if (userOpt.isPresent() && passwordEncoder.matches(password, userOpt.get().getPasswordHash())) {
-            return jwtUtils.generateToken(email, userOpt.get().getRole());
+        // Only the hashing runs on the CPU-sized pool; the rehash save and the refresh
+        // token insert go back to the task executor so database waits never hold a core
+        return hashingExecutor.submit(() -> checkPassword(userOpt, password))
+                .thenApplyAsync(this::completeLogin, applicationTaskExecutor);
+    }
+
+    private PasswordCheck checkPassword(Optional<User> userOpt, String password) {
+        if (userOpt.isEmpty() || !passwordEncoder.matches(password, userOpt.get().getPasswordHash())) {
+            throw new BadCredentialsException("Invalid credentials");
         }
-        throw new RuntimeException("Invalid credentials");
+        User user = userOpt.get();
+        String upgradedHash = passwordEncoder.upgradeEncoding(user.getPasswordHash())
+                ? passwordEncoder.encode(password)
+                : null;
+        return new PasswordCheck(user, upgradedHash);
     }
 
-    public boolean validateToken(String token) {
-        try {
-            String email = jwtUtils.extractUsername(token);
-            return jwtUtils.validateToken(token, email);
-        } catch (Exception e) {
-            return false;
+    private TokenPair completeLogin(PasswordCheck check) {
+        User user = check.user();
+        if (check.upgradedHash() != null) {
+            user.setPasswordHash(check.upgradedHash());
+            userRepository.save(user);
+            logger.info("Upgraded password hash for user {}", user.getId());
         }
+        return tokenService.issue(user);
+    }
+
+    public boolean validateToken(String token) {
+        // Signature and expiry are checked by the verifier, logout revocations by the store
+        return jwtVerifier.verify(token)
+                .filter(claims -> claims.getId() == null || !tokenService.isRevoked(claims.getId()))
+                .isPresent();
+    }
+
+    public Optional<UserView> getUserById(UUID id) {
+        return userDirectory.findById(id);
+    }
+
+    public List<UserView> getUsersByIds(Collection<UUID> ids) {
+        return userDirectory.findAllById(ids);
     }
 
-    public Optional<User> getUserById(UUID id) {
-        return userRepository.findById(id);
+    private record PasswordCheck(User user, String upgradedHash) {
     }
 }
@@ -0,0 +1,162 @@
+package com.medical.auth_service.services;
+
+import com.medical.auth_service.dto.RevocationDelta;
+import com.medical.auth_service.dto.RevocationSnapshot;
+import com.medical.auth_service.dto.TokenPair;
+import com.medical.auth_service.entities.RefreshToken;
+import com.medical.auth_service.entities.RevokedToken;
+import com.medical.auth_service.entities.User;
+import com.medical.auth_service.repositories.RefreshTokenRepository;
+import com.medical.auth_service.repositories.RevokedTokenRepository;
+import com.medical.auth_service.repositories.UserRepository;
+import com.medical.auth_service.util.JwtUtils;
+import com.medical.jwt_validation.RevocationBloomFilter;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Issues short-lived access tokens with long-lived, rotating refresh tokens, and keeps
+ * the list of revoked access token ids that gateways mirror.
+ */
+@Service
+public class TokenService {
+
+    private static final int MIN_FILTER_CAPACITY = 10_000;
+
+    private final JwtUtils jwtUtils;
+    private final UserRepository userRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final Duration refreshTokenTtl;
+    private final double bloomFalsePositiveRate;
+    private final Duration commitMargin;
+    private final SecureRandom random = new SecureRandom();
+
+    public TokenService(JwtUtils jwtUtils, UserRepository userRepository,
+            RefreshTokenRepository refreshTokenRepository, RevokedTokenRepository revokedTokenRepository,
+            @Value("${jwt.refresh-token-ttl:P7D}") Duration refreshTokenTtl,
+            @Value("${jwt.revocation.false-positive-rate:0.000001}") double bloomFalsePositiveRate,
+            @Value("${jwt.revocation.commit-margin:PT1M}") Duration commitMargin) {
+        this.jwtUtils = jwtUtils;
+        this.userRepository = userRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.refreshTokenTtl = refreshTokenTtl;
+        this.bloomFalsePositiveRate = bloomFalsePositiveRate;
+        this.commitMargin = commitMargin;
+    }
+
+    public TokenPair issue(User user) {
+        byte[] secret = new byte[32];
+        random.nextBytes(secret);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(sha256(refreshToken))
+                .userId(user.getId())
+                .expiresAt(LocalDateTime.now().plus(refreshTokenTtl))
+                .build());
+        return new TokenPair(jwtUtils.generateToken(user.getEmail(), user.getRole()), refreshToken);
+    }
+
+    /**
+     * Rotates the refresh token: the presented one is consumed and a new pair is issued.
+     * Throws BadCredentialsException when the token is unknown, expired, already used or
+     * belongs to a disabled user.
+     */
+    @Transactional
+    public TokenPair refresh(String refreshToken) {
+        String tokenHash = sha256(refreshToken);
+        if (refreshTokenRepository.consume(tokenHash, LocalDateTime.now()) != 1) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        User user = refreshTokenRepository.findByTokenHash(tokenHash)
+                .flatMap(stored -> userRepository.findById(stored.getUserId()))
+                .filter(User::isEnabled)
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        return issue(user);
+    }
+
+    @Transactional
+    public void logout(String accessToken, String refreshToken) {
+        if (refreshToken != null) {
+            refreshTokenRepository.findByTokenHash(sha256(refreshToken)).ifPresent(t -> t.setRevoked(true));
+        }
+        if (accessToken == null) {
+            return;
+        }
+        Claims claims;
+        try {
+            claims = jwtUtils.parse(accessToken);
+        } catch (JwtException e) {
+            return; // already expired or never valid, nothing to revoke
+        }
+        if (claims.getId() != null) {
+            revokedTokenRepository.save(RevokedToken.builder()
+                    .jti(claims.getId())
+                    .expiresAt(LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault()))
+                    .build());
+        }
+    }
+
+    public boolean isRevoked(String jti) {
+        return revokedTokenRepository.existsByJti(jti);
+    }
+
+    public RevocationSnapshot snapshot() {
+        // Read the sequence first: entries added meanwhile are then also returned by the next delta
+        long sequence = revokedTokenRepository.findLatestSequence();
+        List<String> jtis = revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now()).stream()
+                .map(RevokedToken::getJti)
+                .toList();
+        // Leave headroom for the deltas gateways add until their next snapshot
+        RevocationBloomFilter filter = RevocationBloomFilter.create(
+                Math.max(MIN_FILTER_CAPACITY, jtis.size() * 2), bloomFalsePositiveRate);
+        jtis.forEach(filter::add);
+        return new RevocationSnapshot(sequence, filter.getNumBits(), filter.getNumHashes(), filter.toBase64());
+    }
+
+    /**
+     * Tokens revoked after {@code sequence}, plus everything revoked within the commit margin,
+     * so an entry that committed after a higher sequence was already handed out still reaches
+     * every gateway. Re-sent entries are harmless: adding to the filter is idempotent.
+     */
+    public RevocationDelta revokedSince(long sequence) {
+        List<RevokedToken> revoked = revokedTokenRepository.findRevokedSince(sequence,
+                LocalDateTime.now().minus(commitMargin));
+        long latest = revoked.isEmpty() ? sequence
+                : Math.max(sequence, revoked.get(revoked.size() - 1).getSequence());
+        return new RevocationDelta(latest, revoked.stream().map(RevokedToken::getJti).toList());
+    }
+
+    @Scheduled(cron = "0 0 * * * *")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.deleteExpired(now);
+        revokedTokenRepository.deleteExpired(now);
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
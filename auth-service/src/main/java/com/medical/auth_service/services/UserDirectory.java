@@ -0,0 +1,73 @@
+package com.medical.auth_service.services;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.medical.auth_service.dto.UserView;
+import com.medical.auth_service.entities.User;
+import com.medical.auth_service.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cached, credential-free user lookups. Misses of a batch are resolved together with
+ * one IN query; writes go through {@link #put(User)} so the cache never serves stale roles.
+ */
+@Service
+public class UserDirectory {
+
+    private final UserRepository userRepository;
+    private final LoadingCache<UUID, Optional<UserView>> cache;
+
+    public UserDirectory(UserRepository userRepository, MeterRegistry meterRegistry,
+            @Value("${auth.user-cache.max-size:10000}") long maxSize,
+            @Value("${auth.user-cache.ttl:PT10M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Optional<UserView> load(UUID id) {
+                        return loadAll(Set.of(id)).get(id);
+                    }
+
+                    @Override
+                    public Map<UUID, Optional<UserView>> loadAll(Set<? extends UUID> ids) {
+                        Map<UUID, UserView> found = userRepository.findViewsByIdIn(Set.copyOf(ids)).stream()
+                                .collect(Collectors.toMap(UserView::id, Function.identity()));
+                        return ids.stream().collect(Collectors.toMap(Function.identity(),
+                                id -> Optional.ofNullable(found.get(id))));
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.users");
+    }
+
+    public Optional<UserView> findById(UUID id) {
+        return cache.get(id);
+    }
+
+    public List<UserView> findAllById(Collection<UUID> ids) {
+        return cache.getAll(ids).values().stream()
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    public void put(User user) {
+        cache.put(user.getId(), Optional.of(new UserView(user.getId(), user.getEmail(), user.getRole(),
+                user.isEnabled(), user.getCreatedAt())));
+    }
+}
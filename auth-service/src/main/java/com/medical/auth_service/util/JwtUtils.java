@@ -1,15 +1,19 @@
 package com.medical.auth_service.util;
 
+import com.medical.jwt_validation.JwtVerifier;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
@@ -17,6 +21,15 @@ public class JwtUtils {
 
     private final String SECRET_KEY = "your_very_secure_and_very_long_secret_key_for_jwt_auth_medical_app";
 
+    private final Key signingKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private final JwtVerifier jwtVerifier;
+    private final Duration accessTokenTtl;
+
+    public JwtUtils(JwtVerifier jwtVerifier, @Value("${jwt.access-token-ttl:PT15M}") Duration accessTokenTtl) {
+        this.jwtVerifier = jwtVerifier;
+        this.accessTokenTtl = accessTokenTtl;
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -25,17 +38,17 @@ public class JwtUtils {
         return extractClaim(token, Claims::getExpiration);
     }
 
+    public Claims parse(String token) {
+        return extractAllClaims(token);
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtVerifier.parse(token);
     }
 
     private Boolean isTokenExpired(String token) {
@@ -52,8 +65,9 @@ public class JwtUtils {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                .setId(UUID.randomUUID().toString()) // jti, lets a single token be revoked
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)) // 10 hours
+                .setExpiration(new Date(System.currentTimeMillis() + accessTokenTtl.toMillis()))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
@@ -64,6 +78,6 @@ public class JwtUtils {
     }
 
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        return signingKey;
     }
 }
@@ -1,14 +1,26 @@
 package com.medical.auth_service.web;
 
+import com.medical.auth_service.dto.RevocationDelta;
+import com.medical.auth_service.dto.RevocationSnapshot;
+import com.medical.auth_service.dto.TokenPair;
 import com.medical.auth_service.entities.User;
 import com.medical.auth_service.services.AuthService;
+import com.medical.auth_service.services.TokenService;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/auth")
@@ -16,6 +28,10 @@ import java.util.UUID;
 public class AuthController {
 
     private final AuthService authService;
+    private final TokenService tokenService;
+
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody User user,
@@ -33,13 +49,60 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest request) {
+        // Hashing runs on its own pool; the servlet thread is released while it does
         try {
-            String token = authService.login(request.getEmail(), request.getPassword());
-            return ResponseEntity.ok(Map.of("token", token));
-        } catch (RuntimeException e) {
+            return authService.login(request.getEmail(), request.getPassword())
+                    .<ResponseEntity<?>>thenApply(tokens -> ResponseEntity.ok(Map.of(
+                            "token", tokens.accessToken(),
+                            "refreshToken", tokens.refreshToken())))
+                    .exceptionally(this::loginFailure);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(loginFailure(e));
+        }
+    }
+
+    private ResponseEntity<?> loginFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof BadCredentialsException) {
             return ResponseEntity.status(401).body(Map.of("message", "Invalid credentials"));
         }
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(503)
+                    .header("Retry-After", "1")
+                    .body(Map.of("message", "Too many concurrent logins, please retry"));
+        }
+        logger.error("Login failed", cause);
+        return ResponseEntity.status(500).body(Map.of("message", "Login failed, please retry"));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest request) {
+        try {
+            TokenPair tokens = tokenService.refresh(request.getRefreshToken());
+            return ResponseEntity.ok(Map.of("token", tokens.accessToken(), "refreshToken", tokens.refreshToken()));
+        } catch (BadCredentialsException e) {
+            return ResponseEntity.status(401).body(Map.of("message", "Invalid refresh token"));
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody(required = false) RefreshRequest request,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader) {
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        tokenService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.ok().build();
+    }
+
+    // Polled by gateways: a full snapshot at startup, then deltas by sequence
+    @GetMapping("/revocations/snapshot")
+    public RevocationSnapshot revocationSnapshot() {
+        return tokenService.snapshot();
+    }
+
+    @GetMapping("/revocations")
+    public RevocationDelta revocations(@RequestParam(defaultValue = "0") long since) {
+        return tokenService.revokedSince(since);
     }
 
     @PostMapping("/validate")
@@ -55,17 +118,27 @@ public class AuthController {
     @GetMapping("/users/{id}")
     public ResponseEntity<?> getUserById(@PathVariable UUID id) {
         return authService.getUserById(id)
-                .map(user -> {
-                    // Return read-only version without passwordHash
-                    user.setPasswordHash(null);
-                    return ResponseEntity.ok(user);
-                })
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @PostMapping("/users/batch")
+    public ResponseEntity<?> getUsersByIds(@RequestBody Set<UUID> ids) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "At most " + MAX_BATCH_SIZE + " ids per request"));
+        }
+        return ResponseEntity.ok(authService.getUsersByIds(ids));
+    }
+
     @Data
     public static class LoginRequest {
         private String email;
         private String password;
     }
+
+    @Data
+    public static class RefreshRequest {
+        private String refreshToken;
+    }
 }
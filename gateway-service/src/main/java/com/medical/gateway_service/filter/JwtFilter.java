@@ -1,27 +1,31 @@
 package com.medical.gateway_service.filter;
 
+import com.medical.gateway_service.security.JwtValidator;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
 
 @Component
 public class JwtFilter extends AbstractGatewayFilterFactory<JwtFilter.Config> {
 
-    private final String SECRET_KEY = "your_very_secure_and_very_long_secret_key_for_jwt_auth_medical_app";
+    private final JwtValidator jwtValidator;
 
-    public JwtFilter() {
+    public JwtFilter(JwtValidator jwtValidator) {
         super(Config.class);
+        this.jwtValidator = jwtValidator;
     }
 
     @Override
@@ -46,34 +50,30 @@ public class JwtFilter extends AbstractGatewayFilterFactory<JwtFilter.Config> {
             String token = authHeader.substring(7);
 
             try {
-                Claims claims = validateToken(token);
+                Claims claims = jwtValidator.validate(token);
                 ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
                         .header("X-User-Email", claims.getSubject())
                         .header("X-User-Role", String.valueOf(claims.get("role")))
                         .build();
                 return chain.filter(exchange.mutate().request(modifiedRequest).build());
+            } catch (ExpiredJwtException e) {
+                return onError(exchange, "Token expired", HttpStatus.UNAUTHORIZED);
+            } catch (JwtException e) {
+                return onError(exchange, "Invalid token: " + e.getMessage(), HttpStatus.UNAUTHORIZED);
             } catch (Exception e) {
-                return onError(exchange, "Invalid Token", HttpStatus.UNAUTHORIZED);
+                return onError(exchange, "Invalid token", HttpStatus.UNAUTHORIZED);
             }
         };
     }
 
-    private Claims validateToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
-    }
-
     private Mono<Void> onError(ServerWebExchange exchange, String err, HttpStatus httpStatus) {
         ServerHttpResponse response = exchange.getResponse();
         response.setStatusCode(httpStatus);
-        return response.setComplete();
+        response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE,
+                "Bearer error=\"invalid_token\", error_description=\"" + err.replace("\"", "'") + "\"");
+        response.getHeaders().setContentType(MediaType.TEXT_PLAIN);
+        DataBuffer body = response.bufferFactory().wrap(err.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(body));
     }
 
     public static class Config {
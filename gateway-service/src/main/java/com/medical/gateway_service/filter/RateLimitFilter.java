@@ -0,0 +1,169 @@
+package com.medical.gateway_service.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limiter, keyed by client IP ("ip") or by the authenticated
+ * X-User-Email ("user", so it must come after JwtFilter). Each bucket is a single
+ * AtomicLong holding the GCRA theoretical arrival time, updated with a CAS loop:
+ * no locks and no allocation on the hot path.
+ * Gateway replicas do not share buckets; instead each enforces its share of the limit,
+ * based on how many gateway instances Eureka currently reports.
+ */
+@Component
+public class RateLimitFilter extends AbstractGatewayFilterFactory<RateLimitFilter.Config> {
+
+    private final DiscoveryClient discoveryClient;
+    private final MeterRegistry meterRegistry;
+    private final String serviceId;
+    private final int trustedProxies;
+    private volatile int replicas = 1;
+
+    public RateLimitFilter(DiscoveryClient discoveryClient, MeterRegistry meterRegistry,
+            @Value("${spring.application.name}") String serviceId,
+            @Value("${gateway.rate-limit.trusted-proxies:0}") int trustedProxies) {
+        super(Config.class);
+        this.discoveryClient = discoveryClient;
+        this.meterRegistry = meterRegistry;
+        this.serviceId = serviceId;
+        this.trustedProxies = trustedProxies;
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.rate-limit.replica-refresh:PT30S}")
+    public void refreshReplicas() {
+        replicas = Math.max(1, discoveryClient.getInstances(serviceId).size());
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Cache<String, AtomicLong> buckets = Caffeine.newBuilder()
+                .maximumSize(config.getMaxKeys())
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        Counter rejected = Counter.builder("gateway.ratelimit.rejected")
+                .tag("key", config.getKeyBy())
+                .register(meterRegistry);
+        boolean byUser = "user".equalsIgnoreCase(config.getKeyBy());
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String key = byUser ? request.getHeaders().getFirst("X-User-Email") : clientIp(request);
+            if (key == null) {
+                return chain.filter(exchange);
+            }
+
+            // GCRA: one token every emissionInterval, bursts of up to capacity tokens
+            int share = replicas;
+            long emissionInterval = (long) (1_000_000_000L * share / config.getRefillPerSecond());
+            long tolerance = emissionInterval * Math.max(1, config.getCapacity() / share);
+            // nanoTime may be negative, so a fresh bucket starts at the smallest arrival time
+            AtomicLong bucket = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+            long now = System.nanoTime();
+            while (true) {
+                long tat = bucket.get();
+                long newTat = Math.max(tat, now) + emissionInterval;
+                long wait = newTat - now - tolerance;
+                if (wait > 0) {
+                    rejected.increment();
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                    response.getHeaders().set("Retry-After", Long.toString(Math.max(1, (wait + 999_999_999L) / 1_000_000_000L)));
+                    return response.setComplete();
+                }
+                if (bucket.compareAndSet(tat, newTat)) {
+                    exchange.getResponse().getHeaders().set("X-RateLimit-Remaining",
+                            Long.toString((tolerance - (newTat - now)) / emissionInterval));
+                    return chain.filter(exchange);
+                }
+            }
+        };
+    }
+
+    private String clientIp(ServerHttpRequest request) {
+        if (trustedProxies > 0) {
+            String forwarded = forwardedClient(request.getHeaders().getOrEmpty("X-Forwarded-For"), trustedProxies);
+            if (forwarded != null) {
+                return forwarded;
+            }
+        }
+        InetSocketAddress remote = request.getRemoteAddress();
+        return remote == null || remote.getAddress() == null ? null : remote.getAddress().getHostAddress();
+    }
+
+    /**
+     * The address our outermost trusted proxy received the request from. Each proxy appends
+     * its peer to X-Forwarded-For, so that is the entry {@code trustedProxies} from the right;
+     * anything further left was written by the client and can be forged.
+     */
+    static String forwardedClient(List<String> headerValues, int trustedProxies) {
+        List<String> hops = new ArrayList<>();
+        for (String value : headerValues) {
+            for (String hop : value.split(",")) {
+                if (!hop.isBlank()) {
+                    hops.add(hop.trim());
+                }
+            }
+        }
+        if (hops.isEmpty()) {
+            return null;
+        }
+        return hops.get(Math.max(0, hops.size() - trustedProxies));
+    }
+
+    public static class Config {
+        private String keyBy = "ip";
+        private int capacity = 10;
+        private double refillPerSecond = 1;
+        private long maxKeys = 100_000;
+
+        public String getKeyBy() {
+            return keyBy;
+        }
+
+        public void setKeyBy(String keyBy) {
+            this.keyBy = keyBy;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        public long getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(long maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+    }
+}
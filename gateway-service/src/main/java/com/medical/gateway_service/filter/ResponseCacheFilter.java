@@ -0,0 +1,239 @@
+package com.medical.gateway_service.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user cache of ETagged GET responses for read-mostly routes (must come after JwtFilter).
+ * For {@code freshFor} after a response was stored, a matching If-None-Match gets a 304 and
+ * other requests get the stored body, both without reaching the backend. Later requests go
+ * through with the stored ETag, so an unchanged resource costs the backend a 304 and no body.
+ * A write by the same user drops that user's entries, so users always see their own changes;
+ * changes by others show up within {@code freshFor}. All entries share one byte budget.
+ */
+@Component
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    // Rough per-entry cost beyond the body: key, headers, map nodes
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final Cache<Key, Entry> entries;
+    // Keys per user, so a write can drop that user's entries without scanning the cache
+    private final Map<String, Set<Key>> keysByUser = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter notModified;
+    private final Counter revalidated;
+    private final Counter misses;
+
+    public ResponseCacheFilter(MeterRegistry meterRegistry,
+            @Value("${gateway.response-cache.max-size:64MB}") DataSize maxSize) {
+        super(Config.class);
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, Entry entry) -> entry.body().length + key.uri().length() + ENTRY_OVERHEAD_BYTES)
+                .expireAfterAccess(Duration.ofMinutes(30))
+                .evictionListener((Key key, Entry entry, RemovalCause cause) -> {
+                    if (key != null) {
+                        forget(key);
+                    }
+                })
+                .build();
+        this.hits = Counter.builder("gateway.response.cache").tag("result", "hit").register(meterRegistry);
+        this.notModified = Counter.builder("gateway.response.cache").tag("result", "not-modified").register(meterRegistry);
+        this.revalidated = Counter.builder("gateway.response.cache").tag("result", "revalidated").register(meterRegistry);
+        this.misses = Counter.builder("gateway.response.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<PathPattern> patterns = new ArrayList<>();
+        for (String path : config.getPaths()) {
+            patterns.add(PathPatternParser.defaultInstance.parse(path));
+        }
+        long freshForNanos = config.getFreshFor().toNanos();
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String user = request.getHeaders().getFirst("X-User-Email");
+            if (user == null) {
+                return chain.filter(exchange);
+            }
+            if (request.getMethod() != HttpMethod.GET) {
+                if (request.getMethod() != HttpMethod.OPTIONS && request.getMethod() != HttpMethod.HEAD) {
+                    invalidate(user);
+                }
+                return chain.filter(exchange);
+            }
+            PathContainer path = request.getPath().pathWithinApplication();
+            if (patterns.stream().noneMatch(pattern -> pattern.matches(path))) {
+                return chain.filter(exchange);
+            }
+
+            Key key = new Key(user, request.getURI().getRawPath()
+                    + (request.getURI().getRawQuery() == null ? "" : "?" + request.getURI().getRawQuery()));
+            Entry entry = entries.getIfPresent(key);
+            if (entry != null && System.nanoTime() - entry.storedAt() < freshForNanos) {
+                return answerFromCache(exchange, entry);
+            }
+
+            misses.increment();
+            ServerWebExchange forwarded = exchange;
+            boolean clientHasEntry = false;
+            if (entry != null) {
+                // Revalidate the stored copy instead of refetching it
+                String ifNoneMatch = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+                clientHasEntry = matches(ifNoneMatch, entry.etag());
+                forwarded = exchange.mutate()
+                        .request(r -> r.headers(headers -> headers.set(HttpHeaders.IF_NONE_MATCH, entry.etag())))
+                        .build();
+            }
+            boolean sendStoredBody = entry != null && !clientHasEntry;
+            ServerHttpResponse storing = new ServerHttpResponseDecorator(exchange.getResponse()) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    String etag = getHeaders().getETag();
+                    if (getStatusCode() == HttpStatus.NOT_MODIFIED && entry != null && entry.etag().equals(etag)) {
+                        // Backend confirmed the stored copy: fresh again
+                        revalidated.increment();
+                        store(key, new Entry(etag, entry.contentType(), entry.body(), System.nanoTime()));
+                        if (sendStoredBody) {
+                            setStatusCode(HttpStatus.OK);
+                            if (entry.contentType() != null) {
+                                getHeaders().setContentType(entry.contentType());
+                            }
+                            getHeaders().setContentLength(entry.body().length);
+                            return Flux.from(body).doOnNext(DataBufferUtils::release)
+                                    .then(super.writeWith(Mono.just(bufferFactory().wrap(entry.body()))));
+                        }
+                    }
+                    if (getStatusCode() != HttpStatus.OK || etag == null || !etag.startsWith("\"")) {
+                        return super.writeWith(body);
+                    }
+                    return DataBufferUtils.join(body).flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+                        if (bytes.length <= config.getMaxBodyBytes()) {
+                            store(key, new Entry(etag, getHeaders().getContentType(), bytes, System.nanoTime()));
+                        }
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+                }
+            };
+            return chain.filter(forwarded.mutate().response(storing).build());
+        };
+    }
+
+    private Mono<Void> answerFromCache(ServerWebExchange exchange, Entry entry) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(entry.etag());
+        headers.setCacheControl("private, no-cache");
+        if (matches(exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH), entry.etag())) {
+            notModified.increment();
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        hits.increment();
+        response.setStatusCode(HttpStatus.OK);
+        if (entry.contentType() != null) {
+            headers.setContentType(entry.contentType());
+        }
+        headers.setContentLength(entry.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(entry.body())));
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        return ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"));
+    }
+
+    private void store(Key key, Entry entry) {
+        keysByUser.compute(key.user(), (user, keys) -> {
+            Set<Key> userKeys = keys != null ? keys : ConcurrentHashMap.newKeySet();
+            userKeys.add(key);
+            return userKeys;
+        });
+        entries.put(key, entry);
+    }
+
+    private void invalidate(String user) {
+        Set<Key> keys = keysByUser.remove(user);
+        if (keys != null) {
+            entries.invalidateAll(keys);
+        }
+    }
+
+    private void forget(Key key) {
+        keysByUser.computeIfPresent(key.user(), (user, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private record Key(String user, String uri) {
+    }
+
+    private record Entry(String etag, MediaType contentType, byte[] body, long storedAt) {
+    }
+
+    public static class Config {
+        private List<String> paths = new ArrayList<>();
+        private Duration freshFor = Duration.ofSeconds(10);
+        private int maxBodyBytes = 256 * 1024;
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        public Duration getFreshFor() {
+            return freshFor;
+        }
+
+        public void setFreshFor(Duration freshFor) {
+            this.freshFor = freshFor;
+        }
+
+        public int getMaxBodyBytes() {
+            return maxBodyBytes;
+        }
+
+        public void setMaxBodyBytes(int maxBodyBytes) {
+            this.maxBodyBytes = maxBodyBytes;
+        }
+    }
+}
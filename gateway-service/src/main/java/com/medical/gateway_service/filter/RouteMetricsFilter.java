@@ -0,0 +1,149 @@
+package com.medical.gateway_service.filter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-route latency timer (with percentile histogram), request and response size
+ * summaries, and a sampled, rate-capped log of slow requests. Everything here is
+ * counter arithmetic on the event loop; response bytes are counted as buffers pass by.
+ */
+@Component
+public class RouteMetricsFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(RouteMetricsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final double slowSampleRate;
+    private final int maxSlowLogsPerSecond;
+
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> requestSizes = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> responseSizes = new ConcurrentHashMap<>();
+
+    // Slow-log budget: second of the current window and logs written in it
+    private final AtomicLong slowLogWindow = new AtomicLong();
+    private final AtomicLong slowLogCount = new AtomicLong();
+
+    public RouteMetricsFilter(MeterRegistry meterRegistry,
+            @Value("${gateway.metrics.slow-threshold:PT0.5S}") Duration slowThreshold,
+            @Value("${gateway.metrics.slow-sample-rate:0.1}") double slowSampleRate,
+            @Value("${gateway.metrics.slow-max-per-second:10}") int maxSlowLogsPerSecond) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.slowSampleRate = slowSampleRate;
+        this.maxSlowLogsPerSecond = maxSlowLogsPerSecond;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        String routeId = routeId(exchange);
+
+        long requestLength = exchange.getRequest().getHeaders().getContentLength();
+        if (requestLength > 0) {
+            requestSizes.computeIfAbsent(routeId, id -> summary("gateway.route.request.size", id))
+                    .record(requestLength);
+        }
+
+        AtomicLong responseBytes = new AtomicLong();
+        ServerHttpResponse counting = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                return super.writeWith(Flux.from(body).doOnNext(buffer -> responseBytes.addAndGet(buffer.readableByteCount())));
+            }
+
+            @Override
+            public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                return super.writeAndFlushWith(Flux.from(body).map(part -> Flux.from(part)
+                        .doOnNext(buffer -> responseBytes.addAndGet(buffer.readableByteCount()))));
+            }
+        };
+
+        return chain.filter(exchange.mutate().response(counting).build())
+                .doFinally(signal -> record(exchange, routeId, System.nanoTime() - start, responseBytes.get()));
+    }
+
+    private void record(ServerWebExchange exchange, String routeId, long elapsedNanos, long responseBytes) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        int statusCode = status == null ? 0 : status.value();
+        String method = exchange.getRequest().getMethod().name();
+
+        timers.computeIfAbsent(new TimerKey(routeId, method, statusCode), this::timer)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        responseSizes.computeIfAbsent(routeId, id -> summary("gateway.route.response.size", id))
+                .record(responseBytes);
+
+        if (elapsedNanos >= slowThresholdNanos && ThreadLocalRandom.current().nextDouble() < slowSampleRate
+                && acquireSlowLogPermit()) {
+            logger.warn("Slow request: route={} method={} path={} status={} duration={}ms",
+                    routeId, method, exchange.getRequest().getPath().value(), statusCode,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+    }
+
+    private boolean acquireSlowLogPermit() {
+        long second = System.nanoTime() / 1_000_000_000L;
+        long window = slowLogWindow.get();
+        if (window != second && slowLogWindow.compareAndSet(window, second)) {
+            slowLogCount.set(0);
+        }
+        return slowLogCount.incrementAndGet() <= maxSlowLogsPerSecond;
+    }
+
+    private Timer timer(TimerKey key) {
+        return Timer.builder("gateway.route.latency")
+                .tag("route", key.routeId())
+                .tag("method", key.method())
+                .tag("status", Integer.toString(key.status()))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary summary(String name, String routeId) {
+        return DistributionSummary.builder(name)
+                .tag("route", routeId)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route == null ? "unmatched" : route.getId();
+    }
+
+    @Override
+    public int getOrder() {
+        // Outermost, so the timing covers every other filter
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private record TimerKey(String routeId, String method, int status) {
+    }
+}
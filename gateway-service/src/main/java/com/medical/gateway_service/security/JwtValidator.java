@@ -0,0 +1,93 @@
+package com.medical.gateway_service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.medical.jwt_validation.JwtVerifier;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HexFormat;
+
+/**
+ * Verifies bearer tokens with the shared {@link JwtVerifier} and remembers the
+ * claims of tokens already verified, keyed by a SHA-256 digest of the token,
+ * until the token's own {@code exp}.
+ */
+@Component
+public class JwtValidator {
+
+    private final JwtVerifier jwtVerifier;
+    private final RevocationList revocationList;
+    private final Cache<String, Claims> claimsCache;
+    private final long maxTtlNanos;
+
+    public JwtValidator(JwtVerifier jwtVerifier, RevocationList revocationList, MeterRegistry meterRegistry,
+            @Value("${jwt.cache.max-size:10000}") long maxSize,
+            @Value("${jwt.cache.max-ttl:PT15M}") Duration maxTtl) {
+        this.jwtVerifier = jwtVerifier;
+        this.revocationList = revocationList;
+        this.maxTtlNanos = maxTtl.toNanos();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ClaimsExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "gateway.jwt.claims");
+    }
+
+    public Claims validate(String token) {
+        String key = digest(token);
+        Claims claims = claimsCache.getIfPresent(key);
+        if (claims == null) {
+            // Throws on bad signature or expired token, so only valid claims are cached
+            claims = jwtVerifier.parse(token);
+            claimsCache.put(key, claims);
+        }
+        // Checked on every request, a token can be revoked after its claims were cached
+        if (revocationList.isRevoked(claims.getId())) {
+            throw new JwtException("Token has been revoked");
+        }
+        return claims;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private class ClaimsExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date exp = claims.getExpiration();
+            if (exp == null) {
+                return maxTtlNanos;
+            }
+            long untilExp = Duration.ofMillis(exp.getTime() - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(untilExp, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
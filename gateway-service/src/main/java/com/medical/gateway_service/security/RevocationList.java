@@ -0,0 +1,79 @@
+package com.medical.gateway_service.security;
+
+import com.medical.jwt_validation.RevocationBloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Local mirror of the access tokens revoked in auth-service. A Bloom filter snapshot
+ * is loaded periodically and deltas are polled in between, so the per-request check
+ * is a few bit lookups and never a call to auth-service.
+ * Until the first snapshot arrives nothing is considered revoked.
+ */
+@Component
+public class RevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationList.class);
+    private static final Duration CALL_TIMEOUT = Duration.ofSeconds(5);
+
+    private final WebClient authClient;
+
+    private volatile RevocationBloomFilter filter;
+    private volatile long sequence = -1;
+
+    public RevocationList(@Qualifier("loadBalancedWebClientBuilder") WebClient.Builder webClientBuilder) {
+        this.authClient = webClientBuilder.baseUrl("http://auth-service").build();
+    }
+
+    public boolean isRevoked(String jti) {
+        RevocationBloomFilter current = filter;
+        return jti != null && current != null && current.mightContain(jti);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.snapshot-interval:PT15M}")
+    public void loadSnapshot() {
+        authClient.get().uri("/auth/revocations/snapshot")
+                .retrieve()
+                .bodyToMono(Snapshot.class)
+                .timeout(CALL_TIMEOUT)
+                .subscribe(snapshot -> {
+                    filter = RevocationBloomFilter.fromBase64(snapshot.bits(), snapshot.numBits(),
+                            snapshot.numHashes());
+                    sequence = snapshot.sequence();
+                }, e -> logger.warn("Could not load revocation snapshot: {}", e.getMessage()));
+    }
+
+    @Scheduled(initialDelayString = "${jwt.revocation.poll-interval:PT10S}",
+            fixedDelayString = "${jwt.revocation.poll-interval:PT10S}")
+    public void pollDeltas() {
+        RevocationBloomFilter current = filter;
+        long since = sequence;
+        if (current == null) {
+            loadSnapshot(); // auth-service was not reachable yet, keep trying at the poll rate
+            return;
+        }
+        authClient.get().uri(uri -> uri.path("/auth/revocations").queryParam("since", since).build())
+                .retrieve()
+                .bodyToMono(Delta.class)
+                .timeout(CALL_TIMEOUT)
+                .subscribe(delta -> {
+                    delta.jtis().forEach(current::add);
+                    if (current == filter && delta.sequence() > sequence) {
+                        sequence = delta.sequence();
+                    }
+                }, e -> logger.warn("Could not poll revocations: {}", e.getMessage()));
+    }
+
+    record Snapshot(long sequence, int numBits, int numHashes, String bits) {
+    }
+
+    record Delta(long sequence, List<String> jtis) {
+    }
+}
@@ -0,0 +1,138 @@
+package com.medical.gateway_service.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateLimitFilterTest {
+
+    private DiscoveryClient discoveryClient;
+    private final AtomicInteger forwarded = new AtomicInteger();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.incrementAndGet();
+        return Mono.empty();
+    };
+
+    @BeforeEach
+    void setUp() {
+        discoveryClient = mock(DiscoveryClient.class);
+    }
+
+    @Test
+    void picksTheHopAppendedByTheOutermostTrustedProxy() {
+        List<String> header = List.of("6.6.6.6, 203.0.113.7", "10.0.0.2");
+
+        assertEquals("10.0.0.2", RateLimitFilter.forwardedClient(header, 1));
+        assertEquals("203.0.113.7", RateLimitFilter.forwardedClient(header, 2));
+        assertEquals("6.6.6.6", RateLimitFilter.forwardedClient(header, 5));
+        assertNull(RateLimitFilter.forwardedClient(List.of(" , "), 1));
+        assertNull(RateLimitFilter.forwardedClient(List.of(), 1));
+    }
+
+    @Test
+    void rejectsRequestsBeyondTheBurstCapacity() {
+        GatewayFilter filter = filter(0, config("ip", 2));
+
+        MockServerWebExchange first = send(filter, from("198.51.100.1"));
+        MockServerWebExchange second = send(filter, from("198.51.100.1"));
+        MockServerWebExchange third = send(filter, from("198.51.100.1"));
+
+        assertEquals(2, forwarded.get());
+        assertEquals("1", first.getResponse().getHeaders().getFirst("X-RateLimit-Remaining"));
+        assertEquals("0", second.getResponse().getHeaders().getFirst("X-RateLimit-Remaining"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, third.getResponse().getStatusCode());
+        assertNotNull(third.getResponse().getHeaders().getFirst("Retry-After"));
+    }
+
+    @Test
+    void keepsOneBucketPerClient() {
+        GatewayFilter filter = filter(0, config("ip", 1));
+
+        send(filter, from("198.51.100.1"));
+        send(filter, from("198.51.100.2"));
+        MockServerWebExchange again = send(filter, from("198.51.100.1"));
+
+        assertEquals(2, forwarded.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, again.getResponse().getStatusCode());
+    }
+
+    @Test
+    void ignoresForgedHopsLeftOfTheTrustedProxy() {
+        GatewayFilter filter = filter(1, config("ip", 1));
+
+        send(filter, from("10.0.0.9").header("X-Forwarded-For", "1.1.1.1, 203.0.113.7"));
+        MockServerWebExchange forged = send(filter, from("10.0.0.9").header("X-Forwarded-For", "2.2.2.2, 203.0.113.7"));
+
+        assertEquals(1, forwarded.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, forged.getResponse().getStatusCode());
+    }
+
+    @Test
+    void splitsTheBurstAcrossGatewayReplicas() {
+        when(discoveryClient.getInstances("gateway-service"))
+                .thenReturn(List.of(mock(ServiceInstance.class), mock(ServiceInstance.class)));
+        RateLimitFilter factory = new RateLimitFilter(discoveryClient, new SimpleMeterRegistry(), "gateway-service", 0);
+        factory.refreshReplicas();
+        GatewayFilter filter = factory.apply(config("ip", 2));
+
+        send(filter, from("198.51.100.1"));
+        MockServerWebExchange second = send(filter, from("198.51.100.1"));
+
+        assertEquals(1, forwarded.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, second.getResponse().getStatusCode());
+    }
+
+    @Test
+    void letsAnonymousRequestsThroughWhenKeyedByUser() {
+        GatewayFilter filter = filter(0, config("user", 1));
+
+        send(filter, from("198.51.100.1"));
+        send(filter, from("198.51.100.1"));
+        send(filter, from("198.51.100.1").header("X-User-Email", "a@example.com"));
+        MockServerWebExchange limited = send(filter, from("198.51.100.1").header("X-User-Email", "a@example.com"));
+
+        assertEquals(3, forwarded.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getResponse().getStatusCode());
+    }
+
+    private GatewayFilter filter(int trustedProxies, RateLimitFilter.Config config) {
+        return new RateLimitFilter(discoveryClient, new SimpleMeterRegistry(), "gateway-service", trustedProxies)
+                .apply(config);
+    }
+
+    private static RateLimitFilter.Config config(String keyBy, int capacity) {
+        RateLimitFilter.Config config = new RateLimitFilter.Config();
+        config.setKeyBy(keyBy);
+        config.setCapacity(capacity);
+        config.setRefillPerSecond(0.01);
+        return config;
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> from(String address) {
+        return MockServerHttpRequest.get("/api/patients").remoteAddress(new InetSocketAddress(address, 40000));
+    }
+
+    private MockServerWebExchange send(GatewayFilter filter, MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+}
@@ -0,0 +1,160 @@
+package com.medical.gateway_service.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResponseCacheFilterTest {
+
+    private static final String PATIENTS = "/api/patients/me";
+
+    private final List<String> backendIfNoneMatch = new ArrayList<>();
+    private String etag = "\"v1\"";
+    private String body = "{\"name\":\"Alice\"}";
+
+    // Backend that honours If-None-Match the way the services do
+    private final GatewayFilterChain backend = exchange -> {
+        String ifNoneMatch = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        backendIfNoneMatch.add(ifNoneMatch);
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().setETag(etag);
+        if (etag.equals(ifNoneMatch)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.writeWith(Flux.empty());
+        }
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+    };
+
+    @Test
+    void servesAFreshEntryWithoutReachingTheBackend() {
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+
+        send(filter, get(PATIENTS, "alice"));
+        MockServerWebExchange cached = send(filter, get(PATIENTS, "alice"));
+
+        assertEquals(1, backendIfNoneMatch.size());
+        assertEquals(HttpStatus.OK, cached.getResponse().getStatusCode());
+        assertEquals(body, cached.getResponse().getBodyAsString().block());
+        assertEquals(etag, cached.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void answersAMatchingIfNoneMatchFromTheCache() {
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+
+        send(filter, get(PATIENTS, "alice"));
+        MockServerWebExchange cached = send(filter, get(PATIENTS, "alice").header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        assertEquals(1, backendIfNoneMatch.size());
+        assertEquals(HttpStatus.NOT_MODIFIED, cached.getResponse().getStatusCode());
+    }
+
+    @Test
+    void keepsEntriesPerUser() {
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+
+        send(filter, get(PATIENTS, "alice"));
+        send(filter, get(PATIENTS, "bob"));
+
+        assertEquals(2, backendIfNoneMatch.size());
+    }
+
+    @Test
+    void dropsTheUsersEntriesOnWrite() {
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+        send(filter, get(PATIENTS, "alice"));
+        send(filter, get(PATIENTS, "bob"));
+
+        send(filter, MockServerHttpRequest.put(PATIENTS).header("X-User-Email", "alice"));
+        etag = "\"v2\"";
+        body = "{\"name\":\"Alice B\"}";
+        MockServerWebExchange alice = send(filter, get(PATIENTS, "alice"));
+        send(filter, get(PATIENTS, "bob"));
+
+        assertEquals(4, backendIfNoneMatch.size());
+        assertEquals(body, alice.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void revalidatesAStaleEntryWithItsETag() {
+        GatewayFilter filter = filter(Duration.ZERO);
+
+        send(filter, get(PATIENTS, "alice"));
+        MockServerWebExchange revalidated = send(filter, get(PATIENTS, "alice"));
+
+        assertEquals(Arrays.asList(null, etag), backendIfNoneMatch);
+        assertEquals(HttpStatus.OK, revalidated.getResponse().getStatusCode());
+        assertEquals(body, revalidated.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void passesTheBackend304ThroughWhenTheClientHasTheEntry() {
+        GatewayFilter filter = filter(Duration.ZERO);
+
+        send(filter, get(PATIENTS, "alice"));
+        MockServerWebExchange revalidated = send(filter, get(PATIENTS, "alice").header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getResponse().getStatusCode());
+    }
+
+    @Test
+    void replacesAStaleEntryThatChanged() {
+        GatewayFilter filter = filter(Duration.ZERO);
+        send(filter, get(PATIENTS, "alice"));
+
+        etag = "\"v2\"";
+        body = "{\"name\":\"Alice B\"}";
+        MockServerWebExchange changed = send(filter, get(PATIENTS, "alice"));
+        send(filter, get(PATIENTS, "alice"));
+
+        assertEquals(body, changed.getResponse().getBodyAsString().block());
+        assertEquals(Arrays.asList(null, "\"v1\"", "\"v2\""), backendIfNoneMatch);
+    }
+
+    @Test
+    void leavesOtherRoutesAlone() {
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+
+        send(filter, get("/api/rdv/1", "alice"));
+        send(filter, get("/api/rdv/1", "alice"));
+
+        assertEquals(2, backendIfNoneMatch.size());
+    }
+
+    private GatewayFilter filter(Duration freshFor) {
+        ResponseCacheFilter.Config config = new ResponseCacheFilter.Config();
+        config.setPaths(List.of("/api/patients/**"));
+        config.setFreshFor(freshFor);
+        return new ResponseCacheFilter(new SimpleMeterRegistry(), DataSize.ofMegabytes(1)).apply(config);
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> get(String path, String user) {
+        return MockServerHttpRequest.get(path).header("X-User-Email", user);
+    }
+
+    private MockServerWebExchange send(GatewayFilter filter, MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, backend).block();
+        return exchange;
+    }
+}
@@ -0,0 +1,103 @@
+package com.medical.jwt_validation;
+
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Makes X-User-Email and X-User-Role trustworthy in a service. With a bearer token they are
+ * taken from the token's verified claims, whatever the caller sent; a token that fails
+ * {@link TokenCheck} gets 401. Without a token (calls between services) the headers are
+ * dropped, so role checks treat the caller as anonymous.
+ */
+public class BearerIdentityFilter extends OncePerRequestFilter {
+    public static final String USER_EMAIL = "X-User-Email";
+    public static final String USER_ROLE = "X-User-Role";
+
+    private final TokenCheck tokenCheck;
+
+    public BearerIdentityFilter(TokenCheck tokenCheck) {
+        this.tokenCheck = tokenCheck;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            chain.doFilter(new IdentityRequest(request, Map.of()), response);
+            return;
+        }
+        Optional<Claims> claims = tokenCheck.validate(authorization.substring(7));
+        if (claims.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            response.setContentType("text/plain");
+            response.getOutputStream().write("Invalid token".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        Object role = claims.get().get("role");
+        chain.doFilter(new IdentityRequest(request, Map.of(
+                USER_EMAIL, String.valueOf(claims.get().getSubject()),
+                USER_ROLE, String.valueOf(role))), response);
+    }
+
+    /** Replaces the identity headers with {@code identity}; every other header is passed through. */
+    private static final class IdentityRequest extends HttpServletRequestWrapper {
+        private final Map<String, String> identity;
+
+        IdentityRequest(HttpServletRequest request, Map<String, String> identity) {
+            super(request);
+            this.identity = identity;
+        }
+
+        private static boolean isIdentityHeader(String name) {
+            return USER_EMAIL.equalsIgnoreCase(name) || USER_ROLE.equalsIgnoreCase(name);
+        }
+
+        private String identityValue(String name) {
+            return USER_EMAIL.equalsIgnoreCase(name) ? identity.get(USER_EMAIL) : identity.get(USER_ROLE);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isIdentityHeader(name) ? identityValue(name) : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (!isIdentityHeader(name)) {
+                return super.getHeaders(name);
+            }
+            String value = identityValue(name);
+            return value == null ? Collections.emptyEnumeration() : Collections.enumeration(List.of(value));
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = new ArrayList<>();
+            for (Enumeration<String> e = super.getHeaderNames(); e.hasMoreElements(); ) {
+                String name = e.nextElement();
+                if (!isIdentityHeader(name)) {
+                    names.add(name);
+                }
+            }
+            names.addAll(identity.keySet());
+            return Collections.enumeration(names);
+        }
+    }
+}
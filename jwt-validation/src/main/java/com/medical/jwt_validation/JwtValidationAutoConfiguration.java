@@ -0,0 +1,40 @@
+package com.medical.jwt_validation;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@AutoConfiguration
+public class JwtValidationAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public JwtVerifier jwtVerifier(
+            @Value("${jwt.secret:your_very_secure_and_very_long_secret_key_for_jwt_auth_medical_app}") String secret) {
+        return new JwtVerifier(secret);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass(name = "org.springframework.web.filter.OncePerRequestFilter")
+    @ConditionalOnProperty(name = "jwt.identity-filter.enabled", matchIfMissing = true)
+    static class ServletIdentityConfiguration {
+
+        @Bean
+        public FilterRegistrationBean<BearerIdentityFilter> bearerIdentityFilter(JwtVerifier jwtVerifier,
+                ObjectProvider<TokenCheck> tokenCheck) {
+            FilterRegistrationBean<BearerIdentityFilter> registration = new FilterRegistrationBean<>(
+                    new BearerIdentityFilter(tokenCheck.getIfAvailable(() -> jwtVerifier::verify)));
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+            return registration;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.medical.jwt_validation;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over revoked token ids ({@code jti}), built by auth-service and shipped
+ * to gateways as a compact snapshot. A miss means "not revoked" with certainty; a hit
+ * means "revoked" with the configured false positive rate, in which case the client
+ * simply refreshes and gets a token with a new id.
+ * Lookups and additions are lock-free.
+ */
+public class RevocationBloomFilter {
+
+    private final AtomicLongArray words;
+    private final int numBits;
+    private final int numHashes;
+
+    public RevocationBloomFilter(int numBits, int numHashes) {
+        this.numBits = Math.max(64, numBits);
+        this.numHashes = Math.max(1, numHashes);
+        this.words = new AtomicLongArray((this.numBits + 63) >>> 6);
+    }
+
+    /** Sized for {@code expectedEntries} at false positive rate {@code fpp}. */
+    public static RevocationBloomFilter create(int expectedEntries, double fpp) {
+        int n = Math.max(1, expectedEntries);
+        int bits = (int) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int hashes = (int) Math.round((double) bits / n * Math.log(2));
+        return new RevocationBloomFilter(bits, hashes);
+    }
+
+    public static RevocationBloomFilter of(Collection<String> jtis, double fpp) {
+        RevocationBloomFilter filter = create(jtis.size(), fpp);
+        jtis.forEach(filter::add);
+        return filter;
+    }
+
+    public void add(String jti) {
+        long hash = hash64(jti);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, numBits);
+            long mask = 1L << bit;
+            int index = bit >>> 6;
+            long current;
+            do {
+                current = words.get(index);
+            } while ((current & mask) == 0 && !words.compareAndSet(index, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String jti) {
+        long hash = hash64(jti);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getNumBits() {
+        return numBits;
+    }
+
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    /** Bit array as Base64, for the snapshot payload. */
+    public String toBase64() {
+        ByteBuffer buffer = ByteBuffer.allocate(words.length() * Long.BYTES);
+        for (int i = 0; i < words.length(); i++) {
+            buffer.putLong(words.get(i));
+        }
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    public static RevocationBloomFilter fromBase64(String bits, int numBits, int numHashes) {
+        RevocationBloomFilter filter = new RevocationBloomFilter(numBits, numHashes);
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(bits));
+        for (int i = 0; i < filter.words.length() && buffer.remaining() >= Long.BYTES; i++) {
+            filter.words.set(i, buffer.getLong());
+        }
+        return filter;
+    }
+
+    // FNV-1a followed by a splitmix64 finalizer, so both 32-bit halves are well mixed
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
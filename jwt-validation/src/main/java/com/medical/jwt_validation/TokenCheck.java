@@ -0,0 +1,13 @@
+package com.medical.jwt_validation;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Optional;
+
+/**
+ * Decides whether a bearer token is accepted by a service. A service can provide its own
+ * bean (for example to add a revocation check); otherwise {@link JwtVerifier#verify} is used.
+ */
+public interface TokenCheck {
+    Optional<Claims> validate(String token);
+}
@@ -0,0 +1,56 @@
+package com.medical.jwt_validation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevocationBloomFilterTest {
+
+    private static final List<String> REVOKED = IntStream.range(0, 10_000)
+            .mapToObj(i -> UUID.randomUUID().toString())
+            .toList();
+
+    @Test
+    void neverMissesARevokedToken() {
+        RevocationBloomFilter filter = RevocationBloomFilter.of(REVOKED, 0.01);
+
+        assertTrue(REVOKED.stream().allMatch(filter::mightContain));
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheConfiguredRate() {
+        RevocationBloomFilter filter = RevocationBloomFilter.of(REVOKED, 0.01);
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain(UUID.randomUUID().toString()))
+                .count();
+
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        RevocationBloomFilter filter = RevocationBloomFilter.of(List.of(), 0.01);
+
+        assertFalse(filter.mightContain(REVOKED.get(0)));
+    }
+
+    @Test
+    void snapshotRoundTripsThroughBase64() {
+        RevocationBloomFilter filter = RevocationBloomFilter.of(REVOKED, 0.01);
+
+        RevocationBloomFilter copy = RevocationBloomFilter.fromBase64(filter.toBase64(),
+                filter.getNumBits(), filter.getNumHashes());
+
+        assertEquals(filter.getNumBits(), copy.getNumBits());
+        assertEquals(filter.getNumHashes(), copy.getNumHashes());
+        assertEquals(filter.toBase64(), copy.toBase64());
+        assertTrue(REVOKED.stream().allMatch(copy::mightContain));
+    }
+}
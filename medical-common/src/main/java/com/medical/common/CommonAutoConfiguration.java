@@ -0,0 +1,25 @@
+package com.medical.common;
+
+import com.medical.common.events.Outbox;
+import com.medical.common.events.OutboxRelay;
+import com.medical.common.events.OutboxTailer;
+import com.medical.common.web.ETags;
+import com.medical.common.web.MergePatch;
+import com.medical.common.web.NdjsonStreams;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Registers the shared helpers and the outbox. The package is added to the auto-configuration
+ * packages so the outbox entity and repository are scanned next to the service's own; that
+ * has to happen before the JPA repositories are registered.
+ */
+@AutoConfiguration(before = { HibernateJpaAutoConfiguration.class, JpaRepositoriesAutoConfiguration.class })
+@AutoConfigurationPackage
+@Import({ ETags.class, MergePatch.class, NdjsonStreams.class, Outbox.class, OutboxRelay.class,
+        OutboxTailer.class })
+public class CommonAutoConfiguration {
+}
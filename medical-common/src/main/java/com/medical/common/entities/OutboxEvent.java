@@ -0,0 +1,49 @@
+package com.medical.common.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Domain event written in the same transaction as the change it describes. Its place in
+ * the change stream is assigned by the relay once the row is committed, so positions
+ * follow commit order rather than insert order.
+ */
+@Entity
+@Table(name = "outbox_event", indexes = {
+        @Index(name = "idx_outbox_published", columnList = "published_at"),
+        @Index(name = "idx_outbox_position", columnList = "stream_position", unique = true) })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+    // Pooled: ids are reserved 50 at a time, so event inserts can be JDBC batched
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    private String aggregateType;
+    private UUID aggregateId;
+    private String type;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload; // JSON
+
+    private LocalDateTime createdAt;
+    private LocalDateTime publishedAt; // null until the relay has handed it to the transport
+
+    @Column(name = "stream_position")
+    private Long position; // set together with publishedAt
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
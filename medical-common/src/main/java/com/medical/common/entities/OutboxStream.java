@@ -0,0 +1,26 @@
+package com.medical.common.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single row holding the last change stream position handed out. Relays lock it while
+ * they number a batch, so a position only becomes visible after every lower one.
+ */
+@Entity
+@Table(name = "outbox_stream")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxStream {
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    private long lastPosition;
+}
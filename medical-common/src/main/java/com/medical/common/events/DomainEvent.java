@@ -0,0 +1,9 @@
+package com.medical.common.events;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+public record DomainEvent(long sequence, String aggregateType, UUID aggregateId, String type,
+        Map<String, Object> payload, LocalDateTime occurredAt) {
+}
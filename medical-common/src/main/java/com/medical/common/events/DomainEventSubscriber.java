@@ -0,0 +1,7 @@
+package com.medical.common.events;
+
+import java.util.List;
+
+public interface DomainEventSubscriber {
+    void onEvents(List<DomainEvent> events);
+}
@@ -0,0 +1,12 @@
+package com.medical.common.events;
+
+import java.util.List;
+
+/**
+ * Optional hand-off of relayed events to a broker, for consumers outside the service; the
+ * service's own subscribers are fed by {@link OutboxTailer}. Delivery is at least once and
+ * a batch is retried as a whole if publish throws, so consumers must be idempotent.
+ */
+public interface EventTransport {
+    void publish(List<DomainEvent> events);
+}
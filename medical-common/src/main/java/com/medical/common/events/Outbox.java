@@ -0,0 +1,67 @@
+package com.medical.common.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medical.common.entities.OutboxEvent;
+import com.medical.common.entities.OutboxStream;
+import com.medical.common.repositories.OutboxEventRepository;
+import com.medical.common.repositories.OutboxStreamRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class Outbox {
+    private static final TypeReference<Map<String, Object>> PAYLOAD = new TypeReference<>() {
+    };
+
+    private final OutboxEventRepository outboxRepo;
+    private final OutboxStreamRepository streamRepo;
+    private final ObjectMapper objectMapper;
+
+    /** Must run inside the transaction that makes the change, so both commit or neither does. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, UUID aggregateId, String type, Map<String, Object> payload) {
+        try {
+            outboxRepo.save(OutboxEvent.builder()
+                    .aggregateType(aggregateType)
+                    .aggregateId(aggregateId)
+                    .type(type)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Relayed events after {@code after}, in stream order. */
+    @Transactional(readOnly = true)
+    public List<DomainEvent> eventsAfter(long after, int limit) {
+        return outboxRepo.findByPositionGreaterThanOrderByPositionAsc(after, PageRequest.of(0, limit)).stream()
+                .map(this::toDomainEvent)
+                .toList();
+    }
+
+    /** The last position handed out; 0 before anything was relayed. */
+    public long latestPosition() {
+        return streamRepo.findById(OutboxStream.ID).map(OutboxStream::getLastPosition).orElse(0L);
+    }
+
+    public DomainEvent toDomainEvent(OutboxEvent event) {
+        try {
+            return new DomainEvent(event.getPosition(), event.getAggregateType(), event.getAggregateId(), event.getType(),
+                    objectMapper.readValue(event.getPayload(), PAYLOAD), event.getCreatedAt());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
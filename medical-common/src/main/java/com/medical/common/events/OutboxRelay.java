@@ -0,0 +1,106 @@
+package com.medical.common.events;
+
+import com.medical.common.entities.OutboxEvent;
+import com.medical.common.entities.OutboxStream;
+import com.medical.common.repositories.OutboxEventRepository;
+import com.medical.common.repositories.OutboxStreamRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Numbers committed outbox rows in the change stream, in batches, and hands them to the
+ * {@link EventTransport} when one is configured. Numbering, publishing and marking a batch
+ * happen in one transaction under the stream row lock: if the transport fails, the batch
+ * stays unpublished and unnumbered and is retried on the next run.
+ */
+@Component
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxRepo;
+    private final OutboxStreamRepository streamRepo;
+    private final Outbox outbox;
+    private final ObjectProvider<EventTransport> transport;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+    private volatile boolean streamCreated;
+
+    public OutboxRelay(OutboxEventRepository outboxRepo, OutboxStreamRepository streamRepo, Outbox outbox,
+            ObjectProvider<EventTransport> transport, TransactionTemplate transactionTemplate,
+            @Value("${outbox.relay.batch-size:200}") int batchSize,
+            @Value("${outbox.retention:P7D}") Duration retention) {
+        this.outboxRepo = outboxRepo;
+        this.streamRepo = streamRepo;
+        this.outbox = outbox;
+        this.transport = transport;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:PT0.5S}")
+    public void relay() {
+        try {
+            ensureStream();
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed == batchSize);
+        } catch (RuntimeException e) {
+            logger.warn("Outbox relay failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        OutboxStream stream = streamRepo.lock(OutboxStream.ID).orElseThrow();
+        List<OutboxEvent> batch = outboxRepo.findByPublishedAtIsNullOrderByCreatedAtAscIdAsc(
+                PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        long position = stream.getLastPosition();
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : batch) {
+            event.setPosition(++position);
+            event.setPublishedAt(now);
+        }
+        stream.setLastPosition(position);
+        transport.ifAvailable(t -> t.publish(batch.stream().map(outbox::toDomainEvent).toList()));
+        return batch.size();
+    }
+
+    private void ensureStream() {
+        if (streamCreated) {
+            return;
+        }
+        if (!streamRepo.existsById(OutboxStream.ID)) {
+            try {
+                // Start above the ids of rows written before positions existed
+                streamRepo.saveAndFlush(new OutboxStream(OutboxStream.ID, outboxRepo.findLatestId()));
+            } catch (DataIntegrityViolationException e) {
+                // created by another instance meanwhile
+            }
+        }
+        streamCreated = true;
+    }
+
+    // Published events stay readable through the change stream for the retention period
+    @Scheduled(cron = "0 15 * * * *")
+    public void purge() {
+        Integer deleted = transactionTemplate.execute(
+                status -> outboxRepo.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        logger.info("Purged {} published outbox events", deleted);
+    }
+}
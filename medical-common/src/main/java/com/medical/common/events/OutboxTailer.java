@@ -0,0 +1,74 @@
+package com.medical.common.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Follows the service's own change stream and hands every event to the
+ * {@link DomainEventSubscriber} beans of this instance, whichever instance made the change,
+ * so in-memory read models stay current across replicas. Subscribers build their state from
+ * the database at startup; the starting position is read before they do, so nothing committed
+ * afterwards is missed. Delivery is at least once: subscribers must be idempotent.
+ */
+@Component
+public class OutboxTailer {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxTailer.class);
+
+    private final Outbox outbox;
+    private final ObjectProvider<DomainEventSubscriber> subscribers;
+    private final int batchSize;
+
+    // Last position delivered; -1 until the starting position is known
+    private volatile long position = -1;
+
+    public OutboxTailer(Outbox outbox, ObjectProvider<DomainEventSubscriber> subscribers,
+            @Value("${outbox.tail.batch-size:500}") int batchSize) {
+        this.outbox = outbox;
+        this.subscribers = subscribers;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void start() {
+        try {
+            position = outbox.latestPosition();
+        } catch (RuntimeException e) {
+            logger.warn("Could not read the change stream position, will retry: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.tail.interval:PT0.5S}")
+    public void tail() {
+        if (position < 0) {
+            start();
+            return;
+        }
+        try {
+            List<DomainEvent> events;
+            do {
+                events = outbox.eventsAfter(position, batchSize);
+                if (!events.isEmpty()) {
+                    deliver(events);
+                    position = events.get(events.size() - 1).sequence();
+                }
+            } while (events.size() == batchSize);
+        } catch (RuntimeException e) {
+            logger.warn("Change stream delivery failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private void deliver(List<DomainEvent> events) {
+        subscribers.orderedStream().forEach(subscriber -> subscriber.onEvents(events));
+    }
+}
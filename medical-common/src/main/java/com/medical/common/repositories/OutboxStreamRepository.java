@@ -0,0 +1,17 @@
+package com.medical.common.repositories;
+
+import com.medical.common.entities.OutboxStream;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface OutboxStreamRepository extends JpaRepository<OutboxStream, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM OutboxStream s WHERE s.id = :id")
+    Optional<OutboxStream> lock(@Param("id") Long id);
+}
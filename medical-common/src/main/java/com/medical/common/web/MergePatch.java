@@ -0,0 +1,53 @@
+package com.medical.common.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * JSON Merge Patch (RFC 7396) onto an entity: present fields overwrite, null clears,
+ * absent fields are left alone. {@code id}, {@code version} and the named relation fields
+ * are never taken from the patch. Applied to a managed entity, only the changed columns are
+ * written (entities use @DynamicUpdate).
+ */
+@Component
+@RequiredArgsConstructor
+public class MergePatch {
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private final ObjectMapper objectMapper;
+
+    public <T> T apply(T target, JsonNode patch, String... protectedFields) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("A merge patch must be a JSON object");
+        }
+        ObjectNode fields = ((ObjectNode) patch).deepCopy();
+        fields.remove("id");
+        fields.remove("version");
+        for (String field : protectedFields) {
+            fields.remove(field);
+        }
+        try {
+            return objectMapper.readerForUpdating(target).readValue(fields);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid patch: " + e.getMessage());
+        }
+    }
+
+    public static Long expectedVersion(JsonNode patch) {
+        JsonNode version = patch == null ? null : patch.get("version");
+        return version == null || version.isNull() ? null : version.asLong();
+    }
+
+    /** Fails with 409 semantics when the client edited an older version than the stored one. */
+    public static void checkVersion(Class<?> type, Object id, Long expected, Long current) {
+        if (expected != null && !expected.equals(current)) {
+            throw new ObjectOptimisticLockingFailureException(type, id);
+        }
+    }
+}
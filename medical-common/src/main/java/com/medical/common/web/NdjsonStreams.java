@@ -0,0 +1,60 @@
+package com.medical.common.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a JPA result stream as newline-delimited JSON, one row at a time,
+ * inside a read-only transaction so the cursor stays open while the response is written.
+ */
+@Component
+public class NdjsonStreams {
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final int CLEAR_EVERY = 500;
+
+    private final ObjectWriter writer;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTx;
+
+    public NdjsonStreams(ObjectMapper objectMapper, EntityManager entityManager,
+            PlatformTransactionManager transactionManager) {
+        this.writer = objectMapper.writer();
+        this.entityManager = entityManager;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public <T> StreamingResponseBody body(Supplier<Stream<T>> rows) {
+        return out -> readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<T> stream = rows.get()) {
+                int[] written = { 0 };
+                stream.forEach(row -> {
+                    try {
+                        out.write(writer.writeValueAsBytes(row));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    // Keep the persistence context from growing with the table
+                    if (++written[0] % CLEAR_EVERY == 0) {
+                        entityManager.clear();
+                    }
+                });
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
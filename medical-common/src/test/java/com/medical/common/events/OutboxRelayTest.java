@@ -0,0 +1,125 @@
+package com.medical.common.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medical.common.entities.OutboxEvent;
+import com.medical.common.entities.OutboxStream;
+import com.medical.common.repositories.OutboxEventRepository;
+import com.medical.common.repositories.OutboxStreamRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private OutboxEventRepository outboxRepo;
+    private OutboxStreamRepository streamRepo;
+    private PlatformTransactionManager transactionManager;
+    private OutboxStream stream;
+    private final List<DomainEvent> published = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        outboxRepo = mock(OutboxEventRepository.class);
+        streamRepo = mock(OutboxStreamRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        stream = new OutboxStream(OutboxStream.ID, 41L);
+        when(streamRepo.existsById(OutboxStream.ID)).thenReturn(true);
+        when(streamRepo.lock(OutboxStream.ID)).thenReturn(Optional.of(stream));
+    }
+
+    @Test
+    void numbersABatchFromTheLastPositionAndPublishesItInOrder() {
+        List<OutboxEvent> batch = List.of(event("RDV_CREATED"), event("RDV_UPDATED"), event("RDV_DELETED"));
+        when(outboxRepo.findByPublishedAtIsNullOrderByCreatedAtAscIdAsc(any())).thenReturn(batch, List.of());
+
+        relay(published::addAll).relay();
+
+        assertEquals(List.of(42L, 43L, 44L), batch.stream().map(OutboxEvent::getPosition).toList());
+        batch.forEach(event -> assertNotNull(event.getPublishedAt()));
+        assertEquals(44L, stream.getLastPosition());
+        assertEquals(List.of(42L, 43L, 44L), published.stream().map(DomainEvent::sequence).toList());
+        assertEquals(List.of("RDV_CREATED", "RDV_UPDATED", "RDV_DELETED"),
+                published.stream().map(DomainEvent::type).toList());
+    }
+
+    @Test
+    void numbersTheBatchWithoutATransport() {
+        List<OutboxEvent> batch = List.of(event("RDV_CREATED"));
+        when(outboxRepo.findByPublishedAtIsNullOrderByCreatedAtAscIdAsc(any())).thenReturn(batch, List.of());
+
+        relay(null).relay();
+
+        assertEquals(42L, batch.get(0).getPosition());
+        assertEquals(42L, stream.getLastPosition());
+    }
+
+    @Test
+    void rollsBackTheBatchWhenTheTransportFails() {
+        when(outboxRepo.findByPublishedAtIsNullOrderByCreatedAtAscIdAsc(any())).thenReturn(List.of(event("RDV_CREATED")));
+
+        OutboxRelay relay = relay(events -> {
+            throw new IllegalStateException("broker down");
+        });
+
+        assertDoesNotThrow(relay::relay);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void seedsAMissingStreamAboveTheExistingRows() {
+        when(streamRepo.existsById(OutboxStream.ID)).thenReturn(false);
+        when(outboxRepo.findLatestId()).thenReturn(1_000L);
+        when(outboxRepo.findByPublishedAtIsNullOrderByCreatedAtAscIdAsc(any())).thenReturn(List.of());
+
+        relay(null).relay();
+
+        verify(streamRepo).saveAndFlush(new OutboxStream(OutboxStream.ID, 1_000L));
+    }
+
+    @Test
+    void leavesAnEmptyBatchUnnumbered() {
+        when(outboxRepo.findByPublishedAtIsNullOrderByCreatedAtAscIdAsc(any())).thenReturn(List.of());
+
+        relay(published::addAll).relay();
+
+        assertEquals(41L, stream.getLastPosition());
+        assertEquals(List.of(), published);
+    }
+
+    private OutboxRelay relay(EventTransport transport) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        if (transport != null) {
+            beans.addBean("transport", transport);
+        }
+        Outbox outbox = new Outbox(outboxRepo, streamRepo, new ObjectMapper());
+        return new OutboxRelay(outboxRepo, streamRepo, outbox, beans.getBeanProvider(EventTransport.class),
+                new TransactionTemplate(transactionManager), 200, Duration.ofDays(7));
+    }
+
+    private static OutboxEvent event(String type) {
+        return OutboxEvent.builder()
+                .aggregateType("RendezVous")
+                .aggregateId(UUID.randomUUID())
+                .type(type)
+                .payload("{\"status\":\"PLANNED\"}")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
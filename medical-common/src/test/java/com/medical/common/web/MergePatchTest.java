@@ -0,0 +1,181 @@
+package com.medical.common.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MergePatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MergePatch mergePatch = new MergePatch(objectMapper);
+
+    @Test
+    void overwritesPresentFieldsAndLeavesAbsentOnesAlone() throws Exception {
+        Patient patient = patient();
+
+        Patient patched = mergePatch.apply(patient, json("{\"phone\":\"0600000000\"}"));
+
+        assertSame(patient, patched);
+        assertEquals("0600000000", patient.getPhone());
+        assertEquals("Alice", patient.getName());
+        assertEquals("1 rue de la Paix", patient.getAddress());
+    }
+
+    @Test
+    void nullClearsAField() throws Exception {
+        Patient patient = patient();
+
+        mergePatch.apply(patient, json("{\"address\":null}"));
+
+        assertNull(patient.getAddress());
+        assertEquals("Alice", patient.getName());
+    }
+
+    @Test
+    void neverTakesIdVersionOrProtectedFieldsFromThePatch() throws Exception {
+        Patient patient = patient();
+        UUID id = patient.getId();
+        UUID userId = patient.getUserId();
+
+        mergePatch.apply(patient, json("{\"id\":\"" + UUID.randomUUID() + "\",\"version\":9,"
+                + "\"userId\":\"" + UUID.randomUUID() + "\",\"name\":\"Alicia\"}"), "userId");
+
+        assertEquals(id, patient.getId());
+        assertEquals(3L, patient.getVersion());
+        assertEquals(userId, patient.getUserId());
+        assertEquals("Alicia", patient.getName());
+    }
+
+    @Test
+    void leavesThePatchDocumentUntouched() throws Exception {
+        JsonNode patch = json("{\"version\":3,\"name\":\"Alicia\"}");
+
+        mergePatch.apply(patient(), patch);
+
+        assertEquals(3L, MergePatch.expectedVersion(patch));
+    }
+
+    @Test
+    void rejectsAPatchThatIsNotAnObject() throws Exception {
+        JsonNode array = json("[{\"name\":\"Alicia\"}]");
+
+        assertThrows(IllegalArgumentException.class, () -> mergePatch.apply(patient(), array));
+        assertThrows(IllegalArgumentException.class, () -> mergePatch.apply(patient(), null));
+    }
+
+    @Test
+    void rejectsAValueOfTheWrongType() throws Exception {
+        JsonNode patch = json("{\"version\":1,\"birthYear\":\"soon\"}");
+
+        assertThrows(IllegalArgumentException.class, () -> mergePatch.apply(patient(), patch));
+    }
+
+    @Test
+    void readsTheExpectedVersion() throws Exception {
+        assertEquals(4L, MergePatch.expectedVersion(json("{\"version\":4}")));
+        assertNull(MergePatch.expectedVersion(json("{\"version\":null}")));
+        assertNull(MergePatch.expectedVersion(json("{\"name\":\"Alicia\"}")));
+        assertNull(MergePatch.expectedVersion(null));
+    }
+
+    @Test
+    void failsOnlyWhenTheClientEditedAnOlderVersion() {
+        UUID id = UUID.randomUUID();
+
+        assertDoesNotThrow(() -> MergePatch.checkVersion(Patient.class, id, null, 3L));
+        assertDoesNotThrow(() -> MergePatch.checkVersion(Patient.class, id, 3L, 3L));
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> MergePatch.checkVersion(Patient.class, id, 2L, 3L));
+    }
+
+    private JsonNode json(String value) throws Exception {
+        return objectMapper.readTree(value);
+    }
+
+    private static Patient patient() {
+        Patient patient = new Patient();
+        patient.setId(UUID.randomUUID());
+        patient.setVersion(3L);
+        patient.setUserId(UUID.randomUUID());
+        patient.setName("Alice");
+        patient.setPhone("0102030405");
+        patient.setAddress("1 rue de la Paix");
+        patient.setBirthYear(1990);
+        return patient;
+    }
+
+    static class Patient {
+        private UUID id;
+        private Long version;
+        private UUID userId;
+        private String name;
+        private String phone;
+        private String address;
+        private Integer birthYear;
+
+        public UUID getId() {
+            return id;
+        }
+
+        public void setId(UUID id) {
+            this.id = id;
+        }
+
+        public Long getVersion() {
+            return version;
+        }
+
+        public void setVersion(Long version) {
+            this.version = version;
+        }
+
+        public UUID getUserId() {
+            return userId;
+        }
+
+        public void setUserId(UUID userId) {
+            this.userId = userId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getPhone() {
+            return phone;
+        }
+
+        public void setPhone(String phone) {
+            this.phone = phone;
+        }
+
+        public String getAddress() {
+            return address;
+        }
+
+        public void setAddress(String address) {
+            this.address = address;
+        }
+
+        public Integer getBirthYear() {
+            return birthYear;
+        }
+
+        public void setBirthYear(Integer birthYear) {
+            this.birthYear = birthYear;
+        }
+    }
+}
@@ -12,4 +12,39 @@ api.interceptors.request.use((config) => {
   return config;
 });
 
+// Access tokens are short-lived: on a 401, trade the refresh token for a new pair once and retry
+let refreshing = null;
+
+api.interceptors.response.use(
+  (response) => response,
+  async (error) => {
+    const original = error.config;
+    const refreshToken = localStorage.getItem("refreshToken");
+    if (
+      error.response?.status !== 401 ||
+      !refreshToken ||
+      original._retried ||
+      original.url?.startsWith("/auth/")
+    ) {
+      return Promise.reject(error);
+    }
+    original._retried = true;
+    try {
+      refreshing =
+        refreshing ||
+        api.post("/auth/refresh", { refreshToken }).finally(() => {
+          refreshing = null;
+        });
+      const { data } = await refreshing;
+      localStorage.setItem("token", data.token);
+      localStorage.setItem("refreshToken", data.refreshToken);
+      return api(original);
+    } catch (refreshError) {
+      localStorage.removeItem("token");
+      localStorage.removeItem("refreshToken");
+      return Promise.reject(error);
+    }
+  }
+);
+
 export default api;
@@ -10,8 +10,9 @@ export const AuthProvider = ({ children }) => {
   const login = async (email, password) => {
     try {
       const response = await api.post("/auth/login", { email, password });
-      const { token } = response.data;
+      const { token, refreshToken } = response.data;
       localStorage.setItem("token", token);
+      localStorage.setItem("refreshToken", refreshToken);
       setToken(token);
       setUser({ email });
       return true;
@@ -33,7 +34,10 @@ export const AuthProvider = ({ children }) => {
   };
 
   const logout = () => {
+    const refreshToken = localStorage.getItem("refreshToken");
+    api.post("/auth/logout", { refreshToken }).catch(() => {});
     localStorage.removeItem("token");
+    localStorage.removeItem("refreshToken");
     setToken(null);
     setUser(null);
   };
@@ -60,8 +60,15 @@ export default function Dashboard() {
   const fetchUpcomingAppointments = async () => {
     if (user?.id) {
       try {
-        const res = await api.get(`/rendezvous/doctor/${user.id}/upcoming`);
-        setUpcomingAppointments(res.data);
+        // One composed call: appointments with their patient and record summaries
+        const res = await api.get(`/dashboard/doctor/${user.id}`);
+        setUpcomingAppointments(
+          res.data.appointments.map((item) => ({
+            ...item.appointment,
+            patient: item.patient,
+            record: item.record,
+          }))
+        );
       } catch (error) {
         console.error("Failed to fetch upcoming appts", error);
       }
@@ -83,10 +90,14 @@ export default function Dashboard() {
   const handleSavePatient = async () => {
     try {
       if (isEditing) {
-        await api.put(`/patients/${currentId}`, {
-          firstName: newPatient.firstName,
-          lastName: newPatient.lastName,
-        });
+        await api.patch(
+          `/patients/${currentId}`,
+          {
+            firstName: newPatient.firstName,
+            lastName: newPatient.lastName,
+          },
+          { headers: { "Content-Type": "application/merge-patch+json" } }
+        );
       } else {
         const authResponse = await api.post("/auth/register", {
           email: newPatient.email,
@@ -295,6 +306,11 @@ export default function Dashboard() {
                   <div className="text-sm text-slate-500 font-medium">
                     {new Date(apt.dateTime).toLocaleDateString()}
                   </div>
+                  {apt.patient && (
+                    <div className="text-sm text-slate-700 font-semibold mt-2">
+                      {apt.patient.firstName} {apt.patient.lastName}
+                    </div>
+                  )}
                 </div>
               </div>
             ))}
@@ -0,0 +1,184 @@
+package com.medical.patient_service.appointments;
+
+import com.medical.common.events.DomainEvent;
+import com.medical.patient_service.clients.RdvServiceClient;
+import com.medical.patient_service.clients.RemoteCallException;
+import com.medical.patient_service.clients.RemoteLookups;
+import com.medical.patient_service.clients.ResilientCalls;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local read model of rdv-service appointments (id and status), so interventions can be
+ * validated without a remote call. Loaded from rdv-service's /rendezvous/index snapshot, then
+ * kept current by polling its change stream (/rendezvous/events); the snapshot is reloaded
+ * periodically as a safety net. An id that is not known yet is looked up remotely once and then kept.
+ * Snapshot loads and polls run on the directory's own thread, so a slow snapshot neither stalls
+ * the shared scheduler (outbox relay and tailer) nor overlaps a poll that would then apply events
+ * to an index about to be replaced.
+ */
+@Component
+public class AppointmentDirectory {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentDirectory.class);
+
+    private static final int SNAPSHOT_RECORD_BYTES = 17;
+    private static final int EVENT_BATCH = 500;
+
+    private final RdvServiceClient rdvServiceClient;
+    private final RemoteLookups remoteLookups;
+    private final ResilientCalls resilientCalls;
+    private final Counter hits;
+    private final Counter misses;
+    private final Duration snapshotInitialDelay;
+    private final Duration snapshotInterval;
+    private final Duration pollInterval;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "appointment-directory");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile AppointmentIndex index = new AppointmentIndex(1024);
+    // Last change stream position applied; -1 until a snapshot has been loaded
+    private volatile long position = -1;
+
+    public AppointmentDirectory(RdvServiceClient rdvServiceClient, RemoteLookups remoteLookups,
+            ResilientCalls resilientCalls, MeterRegistry meterRegistry,
+            @Value("${appointments.snapshot-initial-delay:PT10S}") Duration snapshotInitialDelay,
+            @Value("${appointments.snapshot-interval:PT10M}") Duration snapshotInterval,
+            @Value("${appointments.poll-interval:PT1S}") Duration pollInterval) {
+        this.rdvServiceClient = rdvServiceClient;
+        this.remoteLookups = remoteLookups;
+        this.resilientCalls = resilientCalls;
+        this.snapshotInitialDelay = snapshotInitialDelay;
+        this.snapshotInterval = snapshotInterval;
+        this.pollInterval = pollInterval;
+        this.hits = Counter.builder("appointments.index.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("appointments.index.lookups").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("appointments.index.size", this, directory -> directory.index.size()).register(meterRegistry);
+    }
+
+    /** Completes with the appointment's status code, or {@link AppointmentIndex#ABSENT} if it does not exist. */
+    public CompletableFuture<Byte> status(UUID id) {
+        byte status = index.get(id);
+        if (status != AppointmentIndex.ABSENT) {
+            hits.increment();
+            return CompletableFuture.completedFuture(status);
+        }
+        misses.increment();
+        return remoteLookups.rdv(id).thenApply(rdv -> {
+            if (rdv == null) {
+                return AppointmentIndex.ABSENT;
+            }
+            byte remoteStatus = AppointmentIndex.statusCode((String) rdv.get("status"));
+            index.put(id, remoteStatus);
+            return remoteStatus;
+        });
+    }
+
+    public CompletableFuture<Boolean> exists(UUID id) {
+        return status(id).thenApply(status -> status != AppointmentIndex.ABSENT);
+    }
+
+    public void put(UUID id, String status) {
+        index.put(id, AppointmentIndex.statusCode(status));
+    }
+
+    public void remove(UUID id) {
+        index.remove(id);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(() -> run(this::refresh), snapshotInitialDelay.toMillis(),
+                snapshotInterval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(() -> run(this::poll), pollInterval.toMillis(), pollInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // A task that throws would never be scheduled again
+    private static void run(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            logger.warn("Appointment directory update failed: {}", e.getMessage());
+        }
+    }
+
+    // Until a refresh succeeds every lookup simply falls through to rdv-service
+    public synchronized void refresh() {
+        ResponseEntity<byte[]> response;
+        try {
+            // Not behind ResilientCalls: a full snapshot legitimately outlasts the adaptive timeout
+            response = rdvServiceClient.getIndexSnapshot();
+        } catch (RuntimeException e) {
+            logger.warn("Could not load the appointment index from rdv-service: {}", e.getMessage());
+            return;
+        }
+        byte[] snapshot = response.getBody() == null ? new byte[0] : response.getBody();
+        String snapshotPosition = response.getHeaders().getFirst("X-Event-Position");
+        int count = snapshot.length / SNAPSHOT_RECORD_BYTES;
+        AppointmentIndex fresh = new AppointmentIndex(count);
+        ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+        for (int i = 0; i < count; i++) {
+            fresh.put(buffer.getLong(), buffer.getLong(), buffer.get());
+        }
+        index = fresh;
+        // Events after this position are replayed on top; applying one twice is harmless
+        position = snapshotPosition == null ? -1 : Long.parseLong(snapshotPosition);
+        logger.info("Loaded {} appointments into the local index", count);
+    }
+
+    // Never overlaps refresh(): both run on the directory's thread and hold its monitor
+    public synchronized void poll() {
+        if (position < 0) {
+            return;
+        }
+        try {
+            List<DomainEvent> events;
+            do {
+                long after = position;
+                events = resilientCalls.call("rdv-service", () -> rdvServiceClient.getEvents(after, EVENT_BATCH));
+                apply(events);
+            } while (events.size() == EVENT_BATCH);
+        } catch (RemoteCallException e) {
+            logger.debug("Appointment change stream unavailable: {}", e.getMessage());
+        }
+    }
+
+    private void apply(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            switch (event.type()) {
+                case "RDV_CREATED", "RDV_UPDATED" -> put(event.aggregateId(), (String) event.payload().get("status"));
+                case "RDV_DELETED" -> remove(event.aggregateId());
+                default -> {
+                }
+            }
+            position = event.sequence();
+        }
+    }
+}
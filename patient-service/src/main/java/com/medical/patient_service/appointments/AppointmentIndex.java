@@ -0,0 +1,159 @@
+package com.medical.patient_service.appointments;
+
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Open-addressing hash set of appointment ids with a status code per entry.
+ * Ids are stored as two longs in a flat array (no UUID or entry objects), so a
+ * million appointments take about 34 MB at the maximum load factor of one half.
+ * Status codes follow rdv-service: 1 PLANNED, 2 DONE, 3 CANCELED, 4 other; 0 marks an empty slot.
+ */
+public class AppointmentIndex {
+
+    public static final byte ABSENT = 0;
+    public static final byte PLANNED = 1;
+    public static final byte DONE = 2;
+    public static final byte CANCELED = 3;
+    public static final byte OTHER = 4;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] ids;
+    private byte[] statuses;
+    private int mask;
+    private int size;
+
+    public AppointmentIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    public byte get(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        lock.readLock().lock();
+        try {
+            for (int slot = slot(msb, lsb); statuses[slot] != ABSENT; slot = (slot + 1) & mask) {
+                if (ids[2 * slot] == msb && ids[2 * slot + 1] == lsb) {
+                    return statuses[slot];
+                }
+            }
+            return ABSENT;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(UUID id, byte status) {
+        put(id.getMostSignificantBits(), id.getLeastSignificantBits(), status);
+    }
+
+    public void put(long msb, long lsb, byte status) {
+        if (status == ABSENT) {
+            throw new IllegalArgumentException("Status code 0 is reserved for empty slots");
+        }
+        lock.writeLock().lock();
+        try {
+            if ((size + 1) * 2 > statuses.length) {
+                resize(statuses.length * 2);
+            }
+            insert(msb, lsb, status);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        lock.writeLock().lock();
+        try {
+            int slot = slot(msb, lsb);
+            while (statuses[slot] != ABSENT && (ids[2 * slot] != msb || ids[2 * slot + 1] != lsb)) {
+                slot = (slot + 1) & mask;
+            }
+            if (statuses[slot] == ABSENT) {
+                return;
+            }
+            // Backward-shift deletion: pull later entries of the probe chain into the gap
+            int gap = slot;
+            for (int next = (gap + 1) & mask; statuses[next] != ABSENT; next = (next + 1) & mask) {
+                int home = slot(ids[2 * next], ids[2 * next + 1]);
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    ids[2 * gap] = ids[2 * next];
+                    ids[2 * gap + 1] = ids[2 * next + 1];
+                    statuses[gap] = statuses[next];
+                    gap = next;
+                }
+            }
+            statuses[gap] = ABSENT;
+            size--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static byte statusCode(String status) {
+        if (status == null || "PLANNED".equals(status))
+            return PLANNED;
+        if ("DONE".equals(status))
+            return DONE;
+        if ("CANCELED".equals(status))
+            return CANCELED;
+        return OTHER;
+    }
+
+    private void insert(long msb, long lsb, byte status) {
+        int slot = slot(msb, lsb);
+        while (statuses[slot] != ABSENT) {
+            if (ids[2 * slot] == msb && ids[2 * slot + 1] == lsb) {
+                statuses[slot] = status;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        ids[2 * slot] = msb;
+        ids[2 * slot + 1] = lsb;
+        statuses[slot] = status;
+        size++;
+    }
+
+    private void resize(int capacity) {
+        long[] oldIds = ids;
+        byte[] oldStatuses = statuses;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldStatuses.length; i++) {
+            if (oldStatuses[i] != ABSENT) {
+                insert(oldIds[2 * i], oldIds[2 * i + 1], oldStatuses[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[2 * capacity];
+        statuses = new byte[capacity];
+        mask = capacity - 1;
+    }
+
+    private int slot(long msb, long lsb) {
+        // fmix64 finalizer from MurmurHash3; version 4 UUIDs have fixed bits, so mix both halves
+        long h = msb * 31 + lsb;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
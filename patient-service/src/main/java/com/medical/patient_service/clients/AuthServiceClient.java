@@ -1,11 +1,12 @@
 package com.medical.patient_service.clients;
 
 import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -14,6 +15,6 @@ public interface AuthServiceClient {
     @PostMapping("/auth/validate")
     Map<String, Object> validate(@RequestParam("token") String token);
 
-    @GetMapping("/auth/users/{id}")
-    Map<String, Object> getUserById(@PathVariable("id") UUID id);
+    @PostMapping("/auth/users/batch")
+    List<Map<String, Object>> getUsersByIds(@RequestBody Collection<UUID> ids);
 }
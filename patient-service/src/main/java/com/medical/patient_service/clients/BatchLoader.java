@@ -0,0 +1,105 @@
+package com.medical.patient_service.clients;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * DataLoader-style coalescer: keys requested within {@code window} of each other are
+ * fetched with one bulk call, and a key already in flight shares the pending result.
+ * Keys missing from the bulk response complete with {@code null}.
+ */
+public class BatchLoader<K, V> {
+
+    private final Function<Set<K>, Map<K, V>> bulkFetch;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+    private final Executor fetchExecutor;
+    private final Counter keysRequested;
+    private final Counter bulkCalls;
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private Map<K, CompletableFuture<V>> pending = new HashMap<>(); // guarded by lock
+    private boolean flushScheduled; // guarded by lock
+
+    public BatchLoader(String name, Function<Set<K>, Map<K, V>> bulkFetch, Duration window, int maxBatchSize,
+            ScheduledExecutorService scheduler, Executor fetchExecutor, MeterRegistry meterRegistry) {
+        this.bulkFetch = bulkFetch;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = scheduler;
+        this.fetchExecutor = fetchExecutor;
+        this.keysRequested = Counter.builder("remote.batch.keys").tag("loader", name).register(meterRegistry);
+        this.bulkCalls = Counter.builder("remote.batch.calls").tag("loader", name).register(meterRegistry);
+    }
+
+    public CompletableFuture<V> load(K key) {
+        keysRequested.increment();
+        CompletableFuture<V> existing = inFlight.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        synchronized (lock) {
+            existing = inFlight.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            CompletableFuture<V> result = new CompletableFuture<>();
+            inFlight.put(key, result);
+            pending.put(key, result);
+            if (pending.size() >= maxBatchSize) {
+                dispatchLocked();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                scheduler.schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            return result;
+        }
+    }
+
+    private void flush() {
+        synchronized (lock) {
+            flushScheduled = false;
+            dispatchLocked();
+        }
+    }
+
+    private void dispatchLocked() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<K, CompletableFuture<V>> batch = pending;
+        pending = new HashMap<>();
+        bulkCalls.increment();
+        fetchExecutor.execute(() -> fetch(batch));
+    }
+
+    private void fetch(Map<K, CompletableFuture<V>> batch) {
+        Map<K, V> values;
+        try {
+            values = bulkFetch.apply(batch.keySet());
+        } catch (RuntimeException e) {
+            batch.forEach((key, future) -> {
+                inFlight.remove(key, future);
+                future.completeExceptionally(e);
+            });
+            return;
+        }
+        batch.forEach((key, future) -> {
+            inFlight.remove(key, future);
+            future.complete(values.get(key));
+        });
+    }
+}
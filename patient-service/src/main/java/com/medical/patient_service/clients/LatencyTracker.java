@@ -0,0 +1,48 @@
+package com.medical.patient_service.clients;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of the most recent call latencies, from which percentiles are derived.
+ * Percentiles are recomputed at most once per second.
+ */
+class LatencyTracker {
+
+    private static final long RECOMPUTE_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final long[] samples;
+    private int next;
+    private int size;
+
+    private volatile long p95Nanos;
+    private volatile long p99Nanos;
+    private long computedAt;
+
+    LatencyTracker(int windowSize, long initialNanos) {
+        this.samples = new long[windowSize];
+        this.p95Nanos = initialNanos;
+        this.p99Nanos = initialNanos;
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        size = Math.min(size + 1, samples.length);
+        long now = System.nanoTime();
+        if (now - computedAt >= RECOMPUTE_INTERVAL_NANOS) {
+            computedAt = now;
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            p95Nanos = sorted[(int) Math.min(size - 1, Math.ceil(size * 0.95) - 1)];
+            p99Nanos = sorted[(int) Math.min(size - 1, Math.ceil(size * 0.99) - 1)];
+        }
+    }
+
+    long p95Nanos() {
+        return p95Nanos;
+    }
+
+    long p99Nanos() {
+        return p99Nanos;
+    }
+}
@@ -1,14 +1,33 @@
 package com.medical.patient_service.clients;
 
+import com.medical.common.events.DomainEvent;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 @FeignClient(name = "rdv-service")
 public interface RdvServiceClient {
-    @GetMapping("/rendezvous/{id}")
-    Map<String, Object> getRdv(@PathVariable("id") UUID id);
+    @GetMapping("/rendezvous/doctor/{doctorId}/upcoming")
+    List<Map<String, Object>> getUpcoming(@PathVariable("doctorId") UUID doctorId);
+
+    @PostMapping("/rendezvous/lookup")
+    List<Map<String, Object>> getRdvs(@RequestBody Collection<UUID> ids);
+
+    // 17 bytes per appointment: id as two longs, then a status code; X-Event-Position gives
+    // the change stream position to resume from
+    @GetMapping(value = "/rendezvous/index", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    ResponseEntity<byte[]> getIndexSnapshot();
+
+    @GetMapping("/rendezvous/events")
+    List<DomainEvent> getEvents(@RequestParam("after") long after, @RequestParam("limit") int limit);
 }
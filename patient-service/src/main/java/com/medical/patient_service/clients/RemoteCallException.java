@@ -0,0 +1,8 @@
+package com.medical.patient_service.clients;
+
+/** A call to another service failed, timed out, or was refused by its bulkhead or circuit breaker. */
+public class RemoteCallException extends RuntimeException {
+    public RemoteCallException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
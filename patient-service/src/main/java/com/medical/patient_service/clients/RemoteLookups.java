@@ -0,0 +1,72 @@
+package com.medical.patient_service.clients;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Single-entity lookups against rdv-service and auth-service, coalesced into their
+ * bulk endpoints. Completes with {@code null} when the entity does not exist, and
+ * exceptionally with {@link RemoteCallException} when the service could not answer.
+ */
+@Component
+public class RemoteLookups {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(daemon("lookup-batcher"));
+    private final ExecutorService fetchExecutor = Executors.newFixedThreadPool(4, daemon("lookup-fetch"));
+
+    private final BatchLoader<UUID, Map<String, Object>> rdvs;
+    private final BatchLoader<UUID, Map<String, Object>> users;
+
+    public RemoteLookups(RdvServiceClient rdvServiceClient, AuthServiceClient authServiceClient,
+            ResilientCalls resilientCalls, MeterRegistry meterRegistry,
+            @Value("${remote.batch.window:PT0.005S}") Duration window,
+            @Value("${remote.batch.max-size:200}") int maxBatchSize) {
+        this.rdvs = new BatchLoader<>("rdv", ids -> byId(resilientCalls.call("rdv-service", true, () -> rdvServiceClient.getRdvs(ids))),
+                window, maxBatchSize, scheduler, fetchExecutor, meterRegistry);
+        this.users = new BatchLoader<>("user", ids -> byId(resilientCalls.call("auth-service", true, () -> authServiceClient.getUsersByIds(ids))),
+                window, maxBatchSize, scheduler, fetchExecutor, meterRegistry);
+    }
+
+    public CompletableFuture<Map<String, Object>> rdv(UUID id) {
+        return rdvs.load(id);
+    }
+
+    public CompletableFuture<Map<String, Object>> user(UUID id) {
+        return users.load(id);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        fetchExecutor.shutdown();
+    }
+
+    private static Map<UUID, Map<String, Object>> byId(List<Map<String, Object>> entities) {
+        Map<UUID, Map<String, Object>> result = new HashMap<>();
+        for (Map<String, Object> entity : entities) {
+            result.put(UUID.fromString(String.valueOf(entity.get("id"))), entity);
+        }
+        return result;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,212 @@
+package com.medical.patient_service.clients;
+
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedThreadPoolBulkheadMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Guards calls to other services, per target client:
+ * <ul>
+ * <li>a thread-pool bulkhead, so one slow service cannot hold every request thread;</li>
+ * <li>a circuit breaker that fails fast while the service keeps failing;</li>
+ * <li>a timeout derived from the observed p99 latency (clamped between min and max); a call
+ * that times out counts as a sample at its elapsed time, so the timeout follows a backend
+ * that got slower instead of failing every call at the old p99;</li>
+ * <li>optionally a hedged second attempt after the observed p95, which the load balancer
+ * sends to the next instance. Only for idempotent reads.</li>
+ * </ul>
+ * On timeout the attempts are cancelled, which drops queued ones from the bulkhead; an attempt
+ * already running keeps its bulkhead thread until the Feign read timeout, as a blocking read
+ * cannot be interrupted.
+ */
+@Component
+public class ResilientCalls {
+
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final ThreadPoolBulkheadRegistry bulkheads;
+    private final ScheduledExecutorService hedgeScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "remote-hedge");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, Guard> guards = new ConcurrentHashMap<>();
+
+    private final long minTimeoutNanos;
+    private final long maxTimeoutNanos;
+    private final double timeoutMultiplier;
+
+    public ResilientCalls(MeterRegistry meterRegistry,
+            @Value("${remote.bulkhead.max-concurrent:16}") int maxConcurrent,
+            @Value("${remote.bulkhead.queue-capacity:32}") int queueCapacity,
+            @Value("${remote.timeout.min:PT0.1S}") Duration minTimeout,
+            @Value("${remote.timeout.max:PT2S}") Duration maxTimeout,
+            @Value("${remote.timeout.p99-multiplier:2.0}") double timeoutMultiplier) {
+        this.meterRegistry = meterRegistry;
+        this.minTimeoutNanos = minTimeout.toNanos();
+        this.maxTimeoutNanos = maxTimeout.toNanos();
+        this.timeoutMultiplier = timeoutMultiplier;
+        this.circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(50)
+                .minimumNumberOfCalls(20)
+                .failureRateThreshold(50)
+                .slowCallDurationThreshold(maxTimeout)
+                .slowCallRateThreshold(80)
+                .waitDurationInOpenState(Duration.ofSeconds(10))
+                // 4xx answers mean the service is healthy
+                .ignoreExceptions(FeignException.FeignClientException.class)
+                .build());
+        this.bulkheads = ThreadPoolBulkheadRegistry.of(ThreadPoolBulkheadConfig.custom()
+                .coreThreadPoolSize(Math.max(1, maxConcurrent / 2))
+                .maxThreadPoolSize(maxConcurrent)
+                .queueCapacity(queueCapacity)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedThreadPoolBulkheadMetrics.ofThreadPoolBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+    }
+
+    public <T> T call(String client, Supplier<T> supplier) {
+        return call(client, false, supplier);
+    }
+
+    public <T> T call(String client, boolean hedge, Supplier<T> supplier) {
+        Guard guard = guards.computeIfAbsent(client, this::newGuard);
+        long start = System.nanoTime();
+        try {
+            T result = guard.circuitBreaker.executeCheckedSupplier(() -> attempt(guard, hedge, supplier));
+            long elapsed = System.nanoTime() - start;
+            guard.latency.record(elapsed);
+            guard.timer(meterRegistry, "success").record(elapsed, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            long elapsed = System.nanoTime() - start;
+            if (e instanceof TimeoutException) {
+                guard.latency.record(elapsed);
+            }
+            guard.timer(meterRegistry, "failure").record(elapsed, TimeUnit.NANOSECONDS);
+            throw new RemoteCallException("Call to " + client + " failed", e);
+        }
+    }
+
+    private <T> T attempt(Guard guard, boolean hedge, Supplier<T> supplier) throws Exception {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        Queue<CompletableFuture<T>> attempts = new ConcurrentLinkedQueue<>();
+        launch(guard, supplier, result, outstanding, attempts);
+
+        if (hedge) {
+            hedgeScheduler.schedule(() -> {
+                if (!result.isDone()) {
+                    outstanding.incrementAndGet();
+                    guard.hedged.increment();
+                    launch(guard, supplier, result, outstanding, attempts);
+                }
+            }, guard.latency.p95Nanos(), TimeUnit.NANOSECONDS);
+        }
+
+        try {
+            return result.get(guard.timeoutNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } catch (TimeoutException e) {
+            result.cancel(false);
+            attempts.forEach(attempt -> attempt.cancel(true));
+            throw e;
+        }
+    }
+
+    // The first successful attempt wins; the result fails only once every attempt has failed
+    private <T> void launch(Guard guard, Supplier<T> supplier, CompletableFuture<T> result, AtomicInteger outstanding,
+            Queue<CompletableFuture<T>> attempts) {
+        try {
+            CompletableFuture<T> attempt = guard.bulkhead.executeSupplier(supplier).toCompletableFuture();
+            attempts.add(attempt);
+            attempt.whenComplete((value, error) -> {
+                if (error == null) {
+                    result.complete(value);
+                } else if (outstanding.decrementAndGet() == 0) {
+                    result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                }
+            });
+        } catch (RuntimeException e) {
+            if (outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private Guard newGuard(String client) {
+        Guard guard = new Guard(client, circuitBreakers.circuitBreaker(client), bulkheads.bulkhead(client),
+                new LatencyTracker(512, maxTimeoutNanos / 4),
+                Counter.builder("remote.hedged").tag("client", client).register(meterRegistry));
+        Gauge.builder("remote.timeout", guard, g -> g.timeoutNanos() / 1_000_000.0)
+                .tag("client", client)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return guard;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hedgeScheduler.shutdown();
+    }
+
+    private final class Guard {
+        final String client;
+        final CircuitBreaker circuitBreaker;
+        final ThreadPoolBulkhead bulkhead;
+        final LatencyTracker latency;
+        final Counter hedged;
+
+        Guard(String client, CircuitBreaker circuitBreaker, ThreadPoolBulkhead bulkhead, LatencyTracker latency,
+                Counter hedged) {
+            this.client = client;
+            this.circuitBreaker = circuitBreaker;
+            this.bulkhead = bulkhead;
+            this.latency = latency;
+            this.hedged = hedged;
+        }
+
+        long timeoutNanos() {
+            long adaptive = (long) (latency.p99Nanos() * timeoutMultiplier);
+            return Math.max(minTimeoutNanos, Math.min(maxTimeoutNanos, adaptive));
+        }
+
+        Timer timer(MeterRegistry registry, String outcome) {
+            return Timer.builder("remote.call")
+                    .tag("client", client)
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.medical.patient_service.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/** Everything the doctor home screen shows, in one response. */
+public record DoctorDashboard(List<Appointment> appointments) {
+
+    public record Appointment(Map<String, Object> appointment, PatientSummary patient, RecordSummary record) {
+    }
+}
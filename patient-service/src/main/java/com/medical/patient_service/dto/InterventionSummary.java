@@ -0,0 +1,7 @@
+package com.medical.patient_service.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record InterventionSummary(UUID id, UUID doctorId, UUID rdvId, String type, LocalDateTime createdAt) {
+}
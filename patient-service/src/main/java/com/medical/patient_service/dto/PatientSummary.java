@@ -0,0 +1,7 @@
+package com.medical.patient_service.dto;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record PatientSummary(UUID id, String firstName, String lastName, LocalDate birthDate, String phone) {
+}
@@ -0,0 +1,8 @@
+package com.medical.patient_service.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record RecordSummary(UUID id, UUID patientId, String diagnosis, String allergies, LocalDateTime updatedAt,
+        Integer interventionCount) {
+}
@@ -0,0 +1,121 @@
+package com.medical.patient_service.entities;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores long free text as {@code ~z1:} + Base64 of raw Deflate, primed with a preset
+ * dictionary of clinical vocabulary. Values without the marker, or whose payload does not
+ * decode, are read as plain text, so existing rows keep working and are compressed the next
+ * time they are written.
+ * <p>
+ * A shipped dictionary must never change: a new one gets a new marker version and the old
+ * one stays here for decoding.
+ */
+@Component
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, String> {
+
+    private static final String MARKER_PREFIX = "~z";
+    private static final String V1 = "~z1:";
+    private static final byte[] DICTIONARY_V1 = loadDictionary("compression/clinical-text-v1.txt");
+
+    private final boolean enabled;
+    private final int minLength;
+
+    public CompressedTextConverter(@Value("${records.compression.enabled:true}") boolean enabled,
+            @Value("${records.compression.min-length:200}") int minLength) {
+        this.enabled = enabled;
+        this.minLength = minLength;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(String text) {
+        if (text == null) {
+            return null;
+        }
+        // Plain text that happens to look like the marker is always encoded, so reads stay unambiguous
+        boolean looksEncoded = text.startsWith(MARKER_PREFIX);
+        if (!looksEncoded && (!enabled || text.length() < minLength)) {
+            return text;
+        }
+        String encoded = V1 + Base64.getEncoder().encodeToString(deflate(text.getBytes(StandardCharsets.UTF_8)));
+        return looksEncoded || encoded.length() < text.length() ? encoded : text;
+    }
+
+    @Override
+    public String convertToEntityAttribute(String column) {
+        if (column == null || !column.startsWith(V1)) {
+            return column;
+        }
+        try {
+            byte[] compressed = Base64.getDecoder().decode(column.substring(V1.length()));
+            return new String(inflate(compressed), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // Written as plain text before compression existed and merely starts like the marker
+            return column;
+        }
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setDictionary(DICTIONARY_V1);
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 16);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setDictionary(DICTIONARY_V1);
+            inflater.setInput(input);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed text");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed text", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] loadDictionary(String resource) {
+        try (InputStream in = CompressedTextConverter.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing compression dictionary " + resource);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
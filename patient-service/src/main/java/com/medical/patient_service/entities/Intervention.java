@@ -5,12 +5,20 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(InterventionCacheListener.class)
+@Table(indexes = @Index(name = "idx_intervention_record_created", columnList = "medical_record_id, created_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,17 +28,23 @@ public class Intervention {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
+    // Optimistic lock; existing rows start at 0 when the column is added
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     private UUID doctorId; // Auth-Service userId
     private UUID rdvId; // Rdv-Service RendezVous.id
 
     private String type;
 
+    @Convert(converter = CompressedTextConverter.class)
     @Column(columnDefinition = "TEXT")
     private String doctorNotes;
 
     private LocalDateTime createdAt;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "medical_record_id")
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private MedicalRecord medicalRecord;
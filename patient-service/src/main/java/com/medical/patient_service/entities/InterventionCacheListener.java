@@ -0,0 +1,37 @@
+package com.medical.patient_service.entities;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * MedicalRecord.interventions is the inverse side of Intervention.medicalRecord, so
+ * Hibernate does not invalidate its cached collection when an intervention is written.
+ * Evict it here once the write has been flushed.
+ */
+@Component
+public class InterventionCacheListener {
+
+    private static final String INTERVENTIONS_REGION = MedicalRecord.class.getName() + ".interventions";
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    public InterventionCacheListener(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void evictRecordInterventions(Intervention intervention) {
+        if (intervention.getMedicalRecord() == null || intervention.getMedicalRecord().getId() == null) {
+            return;
+        }
+        entityManagerFactory.getObject().unwrap(SessionFactory.class).getCache()
+                .evictCollectionData(INTERVENTIONS_REGION, intervention.getMedicalRecord().getId());
+    }
+}
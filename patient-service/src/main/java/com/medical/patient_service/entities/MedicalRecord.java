@@ -5,13 +5,21 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.LazyGroup;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,27 +29,42 @@ public class MedicalRecord {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
+    // Optimistic lock; existing rows start at 0 when the column is added
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     @Column(columnDefinition = "TEXT")
     private String diagnosis;
 
     @Column(columnDefinition = "TEXT")
     private String allergies;
 
+    // Narrative fields are only read by the record detail view; loaded together on first access
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("narrative")
+    @Convert(converter = CompressedTextConverter.class)
     @Column(columnDefinition = "TEXT")
     private String treatments;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("narrative")
+    @Convert(converter = CompressedTextConverter.class)
     @Column(columnDefinition = "TEXT")
     private String notes;
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
-    @OneToOne
-    @JoinColumn(name = "patient_id")
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id", unique = true)
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private Patient patient;
 
+    // Not serialized: the timeline is read through /interventions/record/{id}, windowed and paged
     @OneToMany(mappedBy = "medicalRecord", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @JsonIgnore
     private List<Intervention> interventions;
 
     @PrePersist
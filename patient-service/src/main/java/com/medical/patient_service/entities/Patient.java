@@ -5,11 +5,18 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 import java.util.UUID;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,6 +26,11 @@ public class Patient {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
+    // Optimistic lock; existing rows start at 0 when the column is added
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     @Column(nullable = false)
     private UUID userId; // Auth-Service User.id
 
@@ -28,6 +40,8 @@ public class Patient {
     private String phone;
     private String address;
 
+    // Patient lists carry the record summary; the narrative is served by /records/patient/{id}
     @OneToOne(mappedBy = "patient", cascade = CascadeType.ALL)
+    @JsonIgnoreProperties({ "treatments", "notes" })
     private MedicalRecord record;
 }
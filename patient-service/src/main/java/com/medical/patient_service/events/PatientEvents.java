@@ -0,0 +1,61 @@
+package com.medical.patient_service.events;
+
+import com.medical.patient_service.entities.Intervention;
+import com.medical.patient_service.entities.MedicalRecord;
+import com.medical.patient_service.entities.Patient;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/** Event types and payloads recorded by patient-service. */
+public final class PatientEvents {
+    public static final String PATIENT = "Patient";
+    public static final String MEDICAL_RECORD = "MedicalRecord";
+    public static final String INTERVENTION = "Intervention";
+
+    public static final String PATIENT_SAVED = "PATIENT_SAVED";
+    public static final String PATIENT_DELETED = "PATIENT_DELETED";
+    public static final String RECORD_SAVED = "RECORD_SAVED";
+    public static final String INTERVENTION_SAVED = "INTERVENTION_SAVED";
+    public static final String INTERVENTION_DELETED = "INTERVENTION_DELETED";
+
+    private PatientEvents() {
+    }
+
+    public static Map<String, Object> patient(Patient patient) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", patient.getId());
+        payload.put("userId", patient.getUserId());
+        payload.put("firstName", patient.getFirstName());
+        payload.put("lastName", patient.getLastName());
+        payload.put("birthDate", patient.getBirthDate());
+        payload.put("phone", patient.getPhone());
+        return payload;
+    }
+
+    // Clinical text stays out of events; subscribers read the record if they need it
+    public static Map<String, Object> record(MedicalRecord record) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", record.getId());
+        payload.put("patientId", record.getPatient() == null ? null : record.getPatient().getId());
+        payload.put("updatedAt", record.getUpdatedAt());
+        return payload;
+    }
+
+    public static Map<String, Object> intervention(Intervention intervention) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", intervention.getId());
+        payload.put("doctorId", intervention.getDoctorId());
+        payload.put("rdvId", intervention.getRdvId());
+        payload.put("type", intervention.getType());
+        payload.put("medicalRecordId",
+                intervention.getMedicalRecord() == null ? null : intervention.getMedicalRecord().getId());
+        payload.put("createdAt", intervention.getCreatedAt());
+        return payload;
+    }
+
+    public static Map<String, Object> deleted(UUID id) {
+        return Map.of("id", id);
+    }
+}
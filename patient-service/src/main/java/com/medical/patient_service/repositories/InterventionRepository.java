@@ -1,8 +1,37 @@
 package com.medical.patient_service.repositories;
 
+import com.medical.patient_service.dto.InterventionSummary;
 import com.medical.patient_service.entities.Intervention;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public interface InterventionRepository extends JpaRepository<Intervention, UUID> {
+    List<Intervention> findByMedicalRecordIdOrderByCreatedAtAscIdAsc(UUID recordId);
+
+    // Removes through the entity manager, so the cache listener runs; returns the number of rows removed
+    long removeById(UUID id);
+
+    // Newest first, so a page keeps the most recent part of the window
+    @Query("SELECT new com.medical.patient_service.dto.InterventionSummary(i.id, i.doctorId, i.rdvId, i.type, i.createdAt) "
+            + "FROM Intervention i WHERE i.medicalRecord.id = :recordId AND i.createdAt >= :since "
+            + "ORDER BY i.createdAt DESC, i.id DESC")
+    List<InterventionSummary> findSummaries(@Param("recordId") UUID recordId, @Param("since") LocalDateTime since,
+            Pageable pageable);
+
+    List<Intervention> findByMedicalRecordIdOrderByCreatedAtAscIdAsc(UUID recordId, Pageable pageable);
+
+    // Keyset page: everything strictly after the (createdAt, id) of the last row the client has seen
+    @Query("SELECT i FROM Intervention i WHERE i.medicalRecord.id = :recordId "
+            + "AND (i.createdAt > :afterCreatedAt OR (i.createdAt = :afterCreatedAt AND i.id > :afterId)) "
+            + "ORDER BY i.createdAt ASC, i.id ASC")
+    List<Intervention> findPageAfter(@Param("recordId") UUID recordId,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") UUID afterId,
+            Pageable pageable);
 }
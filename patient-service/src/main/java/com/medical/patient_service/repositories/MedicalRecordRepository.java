@@ -1,8 +1,26 @@
 package com.medical.patient_service.repositories;
 
+import com.medical.patient_service.dto.RecordSummary;
 import com.medical.patient_service.entities.MedicalRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, UUID> {
+    // Via the unique patient_id index; the interventions are not part of the record representation
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<MedicalRecord> findByPatientId(UUID patientId);
+
+    // One query for many patients, without the interventions themselves
+    @Query("SELECT new com.medical.patient_service.dto.RecordSummary(r.id, r.patient.id, r.diagnosis, r.allergies, "
+            + "r.updatedAt, SIZE(r.interventions)) FROM MedicalRecord r WHERE r.patient.id IN :patientIds")
+    List<RecordSummary> findSummariesByPatientIdIn(@Param("patientIds") Collection<UUID> patientIds);
 }
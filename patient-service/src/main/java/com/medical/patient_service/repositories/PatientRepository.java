@@ -1,8 +1,44 @@
 package com.medical.patient_service.repositories;
 
+import com.medical.patient_service.dto.PatientSummary;
 import com.medical.patient_service.entities.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface PatientRepository extends JpaRepository<Patient, UUID> {
+    List<Patient> findAllByOrderByIdAsc(Pageable pageable);
+
+    // Derived delete: removes through the entity manager, so the record cascade still applies, and
+    // returns how many rows went away (deleteById silently does nothing for an unknown id)
+    long removeById(UUID id);
+
+    List<Patient> findByIdGreaterThanOrderByIdAsc(UUID after, Pageable pageable);
+
+    // Rows are pulled from the cursor in chunks (needs useCursorFetch=true on MySQL); bulk exports
+    // bypass the second-level cache so they do not evict the hot entries
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE") })
+    @Query("SELECT p FROM Patient p LEFT JOIN FETCH p.record ORDER BY p.id")
+    Stream<Patient> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE") })
+    @Query("SELECT new com.medical.patient_service.dto.PatientSummary(p.id, p.firstName, p.lastName, p.birthDate, p.phone) FROM Patient p")
+    Stream<PatientSummary> streamSummaries();
+
+    @Query("SELECT new com.medical.patient_service.dto.PatientSummary(p.id, p.firstName, p.lastName, p.birthDate, p.phone) "
+            + "FROM Patient p WHERE p.id IN :ids")
+    List<PatientSummary> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
 }
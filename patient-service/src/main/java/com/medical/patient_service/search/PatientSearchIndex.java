@@ -0,0 +1,219 @@
+package com.medical.patient_service.search;
+
+import com.medical.common.events.DomainEvent;
+import com.medical.common.events.DomainEventSubscriber;
+import com.medical.patient_service.dto.PatientSummary;
+import com.medical.patient_service.entities.Patient;
+import com.medical.patient_service.events.PatientEvents;
+import com.medical.patient_service.repositories.PatientRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * In-process search index over patient names, phone and birth date.
+ * Whole terms live in a sorted map (exact and prefix matches), their trigrams in a
+ * hash map (typo-tolerant matches). Kept up to date from the patient events relayed
+ * by the outbox and rebuilt from the database at startup.
+ */
+@Component
+@RequiredArgsConstructor
+public class PatientSearchIndex implements DomainEventSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientSearchIndex.class);
+
+    private static final float EXACT_SCORE = 3f;
+    private static final float PREFIX_SCORE = 2f;
+    private static final float FUZZY_SCORE = 1f;
+    private static final float MIN_TRIGRAM_OVERLAP = 0.5f;
+    private static final int MAX_PREFIX_TERMS = 256;
+    // Trigrams shared by this many patients say nothing about a match; skip them
+    private static final int MAX_TRIGRAM_POSTINGS = 20_000;
+
+    private final PatientRepository patientRepository;
+
+    private final Map<UUID, PatientSummary> documents = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<UUID>> terms = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<UUID>> trigrams = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try (Stream<PatientSummary> patients = patientRepository.streamSummaries()) {
+            patients.forEach(this::index);
+        }
+        logger.info("Patient search index rebuilt with {} patients in {} ms", documents.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            switch (event.type()) {
+                case PatientEvents.PATIENT_SAVED -> {
+                    Map<String, Object> p = event.payload();
+                    Object birthDate = p.get("birthDate");
+                    index(new PatientSummary(event.aggregateId(), (String) p.get("firstName"),
+                            (String) p.get("lastName"), birthDate == null ? null : LocalDate.parse(birthDate.toString()),
+                            (String) p.get("phone")));
+                }
+                case PatientEvents.PATIENT_DELETED -> remove(event.aggregateId());
+                default -> {
+                }
+            }
+        }
+    }
+
+    public void index(Patient patient) {
+        index(new PatientSummary(patient.getId(), patient.getFirstName(), patient.getLastName(),
+                patient.getBirthDate(), patient.getPhone()));
+    }
+
+    public synchronized void index(PatientSummary patient) {
+        remove(patient.id());
+        documents.put(patient.id(), patient);
+        for (String term : termsOf(patient)) {
+            terms.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(patient.id());
+            for (String trigram : trigramsOf(term)) {
+                trigrams.computeIfAbsent(trigram, t -> ConcurrentHashMap.newKeySet()).add(patient.id());
+            }
+        }
+    }
+
+    public synchronized void remove(UUID id) {
+        PatientSummary previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : termsOf(previous)) {
+            removePosting(terms, term, id);
+            for (String trigram : trigramsOf(term)) {
+                removePosting(trigrams, trigram, id);
+            }
+        }
+    }
+
+    public List<PatientSummary> search(String query, int limit) {
+        Map<UUID, Float> scores = new HashMap<>();
+        for (String token : tokenize(query)) {
+            Map<UUID, Float> tokenScores = new HashMap<>();
+            scorePrefix(token, tokenScores);
+            scoreFuzzy(token, tokenScores);
+            tokenScores.forEach((id, score) -> scores.merge(id, score, Float::sum));
+        }
+
+        PriorityQueue<Map.Entry<UUID, Float>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<UUID, Float> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<PatientSummary> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            PatientSummary summary = documents.get(top.poll().getKey());
+            if (summary != null) {
+                result.add(summary);
+            }
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void scorePrefix(String token, Map<UUID, Float> scores) {
+        int seen = 0;
+        for (Map.Entry<String, Set<UUID>> entry : terms.subMap(token, true, token + Character.MAX_VALUE, false)
+                .entrySet()) {
+            float score = entry.getKey().equals(token) ? EXACT_SCORE : PREFIX_SCORE;
+            for (UUID id : entry.getValue()) {
+                scores.merge(id, score, Math::max);
+            }
+            if (++seen >= MAX_PREFIX_TERMS) {
+                break;
+            }
+        }
+    }
+
+    private void scoreFuzzy(String token, Map<UUID, Float> scores) {
+        if (token.length() < 3) {
+            return;
+        }
+        Set<String> queryTrigrams = trigramsOf(token);
+        Map<UUID, Integer> hits = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            Set<UUID> postings = trigrams.get(trigram);
+            if (postings == null || postings.size() > MAX_TRIGRAM_POSTINGS) {
+                continue;
+            }
+            for (UUID id : postings) {
+                hits.merge(id, 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<UUID, Integer> hit : hits.entrySet()) {
+            float overlap = (float) hit.getValue() / queryTrigrams.size();
+            if (overlap >= MIN_TRIGRAM_OVERLAP) {
+                scores.merge(hit.getKey(), FUZZY_SCORE * overlap, Math::max);
+            }
+        }
+    }
+
+    private static void removePosting(Map<String, Set<UUID>> postings, String key, UUID id) {
+        postings.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static Set<String> termsOf(PatientSummary patient) {
+        Set<String> result = new HashSet<>();
+        result.addAll(tokenize(patient.firstName()));
+        result.addAll(tokenize(patient.lastName()));
+        if (patient.phone() != null) {
+            String digits = patient.phone().replaceAll("\\D", "");
+            if (!digits.isEmpty()) {
+                result.add(digits);
+            }
+        }
+        if (patient.birthDate() != null) {
+            result.add(patient.birthDate().toString());
+        }
+        return result;
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalized.split("[^\\p{Alnum}-]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Set<String> trigramsOf(String term) {
+        Set<String> result = new HashSet<>();
+        String padded = " " + term + " ";
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,48 @@
+package com.medical.patient_service.security;
+
+import com.medical.jwt_validation.JwtVerifier;
+import com.medical.jwt_validation.TokenCheck;
+import com.medical.patient_service.clients.AuthServiceClient;
+import com.medical.patient_service.clients.RemoteCallException;
+import com.medical.patient_service.clients.ResilientCalls;
+import feign.FeignException;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Validates tokens in-process for the BearerIdentityFilter in front of every request.
+ * auth-service is only asked when jwt.remote-revocation-check is enabled, to catch tokens
+ * revoked before they expire.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenValidator implements TokenCheck {
+    private final JwtVerifier jwtVerifier;
+    private final AuthServiceClient authServiceClient;
+    private final ResilientCalls resilientCalls;
+
+    @Value("${jwt.remote-revocation-check:false}")
+    private boolean remoteRevocationCheck;
+
+    @Override
+    public Optional<Claims> validate(String token) {
+        Optional<Claims> claims = jwtVerifier.verify(token);
+        if (claims.isEmpty() || !remoteRevocationCheck) {
+            return claims;
+        }
+        try {
+            resilientCalls.call("auth-service", () -> authServiceClient.validate(token));
+            return claims;
+        } catch (RemoteCallException e) {
+            if (e.getCause() instanceof FeignException.Unauthorized) {
+                return Optional.empty();
+            }
+            // auth-service unreachable: the local signature and expiry check still stands
+            return claims;
+        }
+    }
+}
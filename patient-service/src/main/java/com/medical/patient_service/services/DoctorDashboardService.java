@@ -0,0 +1,91 @@
+package com.medical.patient_service.services;
+
+import com.medical.patient_service.clients.RdvServiceClient;
+import com.medical.patient_service.clients.ResilientCalls;
+import com.medical.patient_service.dto.DoctorDashboard;
+import com.medical.patient_service.dto.PatientSummary;
+import com.medical.patient_service.dto.RecordSummary;
+import com.medical.patient_service.repositories.MedicalRecordRepository;
+import com.medical.patient_service.repositories.PatientRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the doctor home screen server-side: the upcoming appointments from rdv-service,
+ * then the patients and their records, each fetched in one batched query and both
+ * queries in parallel. Replaces 1 + 2N sequential browser round trips.
+ */
+@Service
+public class DoctorDashboardService {
+    private final RdvServiceClient rdvServiceClient;
+    private final ResilientCalls resilientCalls;
+    private final PatientRepository patientRepository;
+    private final MedicalRecordRepository recordRepository;
+    private final ExecutorService executor = Executors.newFixedThreadPool(4, runnable -> {
+        Thread thread = new Thread(runnable, "dashboard-fetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DoctorDashboardService(RdvServiceClient rdvServiceClient, ResilientCalls resilientCalls,
+            PatientRepository patientRepository, MedicalRecordRepository recordRepository) {
+        this.rdvServiceClient = rdvServiceClient;
+        this.resilientCalls = resilientCalls;
+        this.patientRepository = patientRepository;
+        this.recordRepository = recordRepository;
+    }
+
+    public DoctorDashboard getDashboard(UUID doctorId) {
+        List<Map<String, Object>> upcoming = resilientCalls.call("rdv-service", true,
+                () -> rdvServiceClient.getUpcoming(doctorId));
+
+        Set<UUID> patientIds = new LinkedHashSet<>();
+        for (Map<String, Object> rdv : upcoming) {
+            if (rdv.get("patientId") != null) {
+                patientIds.add(UUID.fromString(rdv.get("patientId").toString()));
+            }
+        }
+
+        Map<UUID, PatientSummary> patients = Map.of();
+        Map<UUID, RecordSummary> records = Map.of();
+        if (!patientIds.isEmpty()) {
+            CompletableFuture<Map<UUID, PatientSummary>> patientsFuture = CompletableFuture.supplyAsync(
+                    () -> byKey(patientRepository.findSummariesByIdIn(patientIds), PatientSummary::id), executor);
+            CompletableFuture<Map<UUID, RecordSummary>> recordsFuture = CompletableFuture.supplyAsync(
+                    () -> byKey(recordRepository.findSummariesByPatientIdIn(patientIds), RecordSummary::patientId),
+                    executor);
+            patients = patientsFuture.join();
+            records = recordsFuture.join();
+        }
+
+        List<DoctorDashboard.Appointment> appointments = new ArrayList<>(upcoming.size());
+        for (Map<String, Object> rdv : upcoming) {
+            UUID patientId = rdv.get("patientId") == null ? null : UUID.fromString(rdv.get("patientId").toString());
+            appointments.add(new DoctorDashboard.Appointment(rdv,
+                    patientId == null ? null : patients.get(patientId),
+                    patientId == null ? null : records.get(patientId)));
+        }
+        return new DoctorDashboard(appointments);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static <T> Map<UUID, T> byKey(List<T> values, Function<T, UUID> key) {
+        return values.stream().collect(Collectors.toMap(key, Function.identity(), (a, b) -> a));
+    }
+}
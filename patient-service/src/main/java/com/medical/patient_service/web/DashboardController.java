@@ -0,0 +1,34 @@
+package com.medical.patient_service.web;
+
+import com.medical.common.web.ETags;
+import com.medical.patient_service.clients.RemoteCallException;
+import com.medical.patient_service.services.DoctorDashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/dashboard")
+public class DashboardController {
+    private final DoctorDashboardService dashboardService;
+    private final ETags eTags;
+
+    @GetMapping("/doctor/{doctorId}")
+    public ResponseEntity<?> getDoctorDashboard(@PathVariable UUID doctorId,
+            @RequestHeader(value = "X-User-Role", required = false) String role,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!"DOCTOR".equalsIgnoreCase(role)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Only Doctors can view the dashboard");
+        }
+        try {
+            return eTags.conditional(dashboardService.getDashboard(doctorId), ifNoneMatch);
+        } catch (RemoteCallException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Appointments are unavailable right now");
+        }
+    }
+}
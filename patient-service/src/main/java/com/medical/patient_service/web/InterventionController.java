@@ -1,28 +1,81 @@
 package com.medical.patient_service.web;
 
-import com.medical.patient_service.clients.RdvServiceClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.medical.common.events.Outbox;
+import com.medical.common.web.MergePatch;
+import com.medical.patient_service.appointments.AppointmentDirectory;
+import com.medical.patient_service.clients.RemoteCallException;
+import com.medical.patient_service.dto.InterventionSummary;
 import com.medical.patient_service.entities.Intervention;
+import com.medical.patient_service.events.PatientEvents;
 import com.medical.patient_service.repositories.InterventionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/interventions")
 public class InterventionController {
     private final InterventionRepository interventionRepository;
-    private final RdvServiceClient rdvServiceClient;
+    private final AppointmentDirectory appointmentDirectory;
+    private final Outbox outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final MergePatch mergePatch;
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // Bounds of the summary timeline; the full timeline stays complete
+    @Value("${records.timeline.window:P365D}")
+    private Duration timelineWindow;
+
+    @Value("${records.timeline.max-items:200}")
+    private int timelineMaxItems;
 
     @GetMapping("/record/{recordId}")
-    public List<Intervention> getByRecordId(@PathVariable UUID recordId) {
-        return interventionRepository.findAll().stream()
-                .filter(i -> i.getMedicalRecord() != null && i.getMedicalRecord().getId().equals(recordId))
-                .collect(Collectors.toList());
+    public List<Intervention> getByRecordId(@PathVariable UUID recordId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreatedAt,
+            @RequestParam(required = false) UUID afterId,
+            @RequestParam(required = false) Integer limit) {
+        // Without a limit the whole timeline of the record is returned (used by the record dialog)
+        if (limit == null) {
+            return interventionRepository.findByMedicalRecordIdOrderByCreatedAtAscIdAsc(recordId);
+        }
+        return getPage(recordId, afterCreatedAt, afterId, limit);
+    }
+
+    // Most recent part of the timeline without the doctor notes, for views that only list what happened when
+    @GetMapping("/record/{recordId}/summary")
+    public ResponseEntity<List<InterventionSummary>> getSummariesByRecordId(@PathVariable UUID recordId) {
+        LocalDateTime since = LocalDateTime.now().minus(timelineWindow);
+        List<InterventionSummary> summaries = new ArrayList<>(
+                interventionRepository.findSummaries(recordId, since, PageRequest.of(0, timelineMaxItems)));
+        Collections.reverse(summaries);
+        return ResponseEntity.ok().header("X-Timeline-Since", since.toString()).body(summaries);
+    }
+
+    private List<Intervention> getPage(UUID recordId, LocalDateTime afterCreatedAt, UUID afterId, int limit) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        if (afterCreatedAt == null || afterId == null) {
+            return interventionRepository.findByMedicalRecordIdOrderByCreatedAtAscIdAsc(recordId, page);
+        }
+        return interventionRepository.findPageAfter(recordId, afterCreatedAt, afterId, page);
     }
 
     @PostMapping
@@ -34,14 +87,11 @@ public class InterventionController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Only Doctors can create interventions");
         }
 
-        if (intervention.getRdvId() != null) {
-            try {
-                rdvServiceClient.getRdv(intervention.getRdvId());
-            } catch (Exception e) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Rendez-vous not found");
-            }
+        ResponseEntity<?> rdvProblem = checkRdv(intervention.getRdvId());
+        if (rdvProblem != null) {
+            return rdvProblem;
         }
-        return ResponseEntity.ok(interventionRepository.save(intervention));
+        return ResponseEntity.ok(saveAndRecord(intervention));
     }
 
     @PutMapping("/{id}")
@@ -51,12 +101,101 @@ public class InterventionController {
         if (!"DOCTOR".equalsIgnoreCase(role)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Only Doctors can modify interventions");
         }
-        intervention.setId(id);
-        return ResponseEntity.ok(interventionRepository.save(intervention));
+        ResponseEntity<?> rdvProblem = checkRdv(intervention.getRdvId());
+        if (rdvProblem != null) {
+            return rdvProblem;
+        }
+        return change(id, intervention.getVersion(), existing -> {
+            if (intervention.getMedicalRecord() != null) {
+                existing.setMedicalRecord(intervention.getMedicalRecord());
+            }
+            existing.setDoctorId(intervention.getDoctorId());
+            existing.setRdvId(intervention.getRdvId());
+            existing.setType(intervention.getType());
+            existing.setDoctorNotes(intervention.getDoctorNotes());
+        });
+    }
+
+    @PatchMapping(value = "/{id}", consumes = { MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<?> patch(@PathVariable UUID id, @RequestBody JsonNode patch,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        if (!"DOCTOR".equalsIgnoreCase(role)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Only Doctors can modify interventions");
+        }
+        JsonNode rdvId = patch.get("rdvId");
+        if (rdvId != null && rdvId.isTextual()) {
+            ResponseEntity<?> rdvProblem;
+            try {
+                rdvProblem = checkRdv(UUID.fromString(rdvId.asText()));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body("Invalid rdvId");
+            }
+            if (rdvProblem != null) {
+                return rdvProblem;
+            }
+        }
+        return change(id, MergePatch.expectedVersion(patch),
+                existing -> mergePatch.apply(existing, patch, "medicalRecord", "createdAt"));
     }
 
     @DeleteMapping("/{id}")
-    public void delete(@PathVariable UUID id) {
-        interventionRepository.deleteById(id);
+    public ResponseEntity<?> delete(@PathVariable UUID id) {
+        Boolean deleted = transactionTemplate.execute(status -> {
+            if (interventionRepository.removeById(id) == 0) {
+                return false;
+            }
+            outbox.record(PatientEvents.INTERVENTION, id, PatientEvents.INTERVENTION_DELETED,
+                    PatientEvents.deleted(id));
+            return true;
+        });
+        return Boolean.TRUE.equals(deleted) ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+    }
+
+    // Answered from the local appointment index; only unknown ids go to rdv-service
+    private ResponseEntity<?> checkRdv(UUID rdvId) {
+        if (rdvId == null) {
+            return null;
+        }
+        try {
+            if (!appointmentDirectory.exists(rdvId).join()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Rendez-vous not found");
+            }
+            return null;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RemoteCallException) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Rendez-vous service unavailable");
+            }
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Rendez-vous not found");
+        }
+    }
+
+    private ResponseEntity<?> change(UUID id, Long expectedVersion, Consumer<Intervention> edit) {
+        try {
+            Intervention saved = transactionTemplate.execute(status -> {
+                Intervention existing = interventionRepository.findById(id).orElse(null);
+                if (existing == null) {
+                    return null;
+                }
+                MergePatch.checkVersion(Intervention.class, id, expectedVersion, existing.getVersion());
+                edit.accept(existing);
+                outbox.record(PatientEvents.INTERVENTION, id, PatientEvents.INTERVENTION_SAVED,
+                        PatientEvents.intervention(existing));
+                return existing;
+            });
+            return saved == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(saved);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Intervention was modified by someone else, reload and retry");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private Intervention saveAndRecord(Intervention intervention) {
+        return transactionTemplate.execute(status -> {
+            Intervention saved = interventionRepository.save(intervention);
+            outbox.record(PatientEvents.INTERVENTION, saved.getId(), PatientEvents.INTERVENTION_SAVED,
+                    PatientEvents.intervention(saved));
+            return saved;
+        });
     }
 }
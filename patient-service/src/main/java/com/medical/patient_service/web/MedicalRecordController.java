@@ -1,32 +1,51 @@
 package com.medical.patient_service.web;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.medical.common.events.Outbox;
+import com.medical.common.web.ETags;
+import com.medical.common.web.MergePatch;
+import com.medical.patient_service.dto.RecordSummary;
 import com.medical.patient_service.entities.MedicalRecord;
+import com.medical.patient_service.events.PatientEvents;
 import com.medical.patient_service.repositories.MedicalRecordRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/records")
 public class MedicalRecordController {
     private final MedicalRecordRepository recordRepository;
+    private final Outbox outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final ETags eTags;
+    private final MergePatch mergePatch;
 
     @GetMapping("/patient/{patientId}")
     public ResponseEntity<?> getByPatientId(@PathVariable UUID patientId,
-            @RequestHeader(value = "X-User-Role", required = false) String role) {
+            @RequestHeader(value = "X-User-Role", required = false) String role,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         // View own medical record -> Patient (Need to check if it's THEIR record)
         // View any -> Doctor
-        MedicalRecord record = recordRepository.findAll().stream()
-                .filter(r -> r.getPatient() != null && r.getPatient().getId().equals(patientId))
-                .findFirst()
-                .orElse(null);
-
-        if (record == null)
-            return ResponseEntity.notFound().build();
-        return ResponseEntity.ok(record);
+        return recordRepository.findByPatientId(patientId)
+                .<ResponseEntity<?>>map(record -> eTags.conditional(record, ifNoneMatch))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // For list views: diagnosis, allergies and the intervention count, without the narrative fields
+    @GetMapping("/patient/{patientId}/summary")
+    public ResponseEntity<?> getSummaryByPatientId(@PathVariable UUID patientId) {
+        List<RecordSummary> summaries = recordRepository.findSummariesByPatientIdIn(List.of(patientId));
+        return summaries.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(summaries.get(0));
     }
 
     @PostMapping
@@ -36,13 +55,58 @@ public class MedicalRecordController {
         if (!"DOCTOR".equalsIgnoreCase(role)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Only Doctors can create medical records");
         }
-        return ResponseEntity.ok(recordRepository.save(record));
+        return ResponseEntity.ok(saveAndRecord(record));
     }
 
+    // Full replacement of the clinical fields; the patient link is kept when omitted
     @PutMapping("/{id}")
     public ResponseEntity<?> update(@PathVariable UUID id, @RequestBody MedicalRecord record,
             @RequestHeader(value = "X-User-Role", required = false) String role) {
-        record.setId(id);
-        return ResponseEntity.ok(recordRepository.save(record));
+        return change(id, record.getVersion(), existing -> {
+            if (record.getPatient() != null) {
+                existing.setPatient(record.getPatient());
+            }
+            existing.setDiagnosis(record.getDiagnosis());
+            existing.setAllergies(record.getAllergies());
+            existing.setTreatments(record.getTreatments());
+            existing.setNotes(record.getNotes());
+        });
+    }
+
+    @PatchMapping(value = "/{id}", consumes = { MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<?> patch(@PathVariable UUID id, @RequestBody JsonNode patch,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        return change(id, MergePatch.expectedVersion(patch),
+                existing -> mergePatch.apply(existing, patch, "patient", "interventions"));
+    }
+
+    private ResponseEntity<?> change(UUID id, Long expectedVersion, Consumer<MedicalRecord> edit) {
+        try {
+            MedicalRecord saved = transactionTemplate.execute(status -> {
+                MedicalRecord existing = recordRepository.findById(id).orElse(null);
+                if (existing == null) {
+                    return null;
+                }
+                MergePatch.checkVersion(MedicalRecord.class, id, expectedVersion, existing.getVersion());
+                edit.accept(existing);
+                outbox.record(PatientEvents.MEDICAL_RECORD, id, PatientEvents.RECORD_SAVED,
+                        PatientEvents.record(existing));
+                return existing;
+            });
+            return saved == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(saved);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Record was modified by someone else, reload and retry");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private MedicalRecord saveAndRecord(MedicalRecord record) {
+        return transactionTemplate.execute(status -> {
+            MedicalRecord saved = recordRepository.save(record);
+            outbox.record(PatientEvents.MEDICAL_RECORD, saved.getId(), PatientEvents.RECORD_SAVED,
+                    PatientEvents.record(saved));
+            return saved;
+        });
     }
 }
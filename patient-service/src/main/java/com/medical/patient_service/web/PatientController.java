@@ -1,30 +1,79 @@
 package com.medical.patient_service.web;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.medical.common.events.Outbox;
+import com.medical.common.web.ETags;
+import com.medical.common.web.MergePatch;
+import com.medical.common.web.NdjsonStreams;
 import com.medical.patient_service.entities.Patient;
+import com.medical.patient_service.events.PatientEvents;
 import com.medical.patient_service.repositories.PatientRepository;
+import com.medical.patient_service.search.PatientSearchIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @RestController
 @RequiredArgsConstructor
 public class PatientController {
     private final PatientRepository patientRepository;
+    private final NdjsonStreams ndjsonStreams;
+    private final PatientSearchIndex searchIndex;
+    private final Outbox outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final ETags eTags;
+    private final MergePatch mergePatch;
+
+    private static final int MAX_PAGE_SIZE = 500;
 
     @GetMapping("/patients")
-    public ResponseEntity<?> getAll(@RequestHeader(value = "X-User-Role", required = false) String role) {
+    public ResponseEntity<?> getAll(@RequestHeader(value = "X-User-Role", required = false) String role,
+            @RequestParam(required = false) UUID after,
+            @RequestParam(required = false) Integer limit) {
         // Any authenticated user can list patients? Usually admins or doctors.
-        return ResponseEntity.ok(patientRepository.findAll());
+        if (limit == null) {
+            return ResponseEntity.ok(patientRepository.findAll());
+        }
+        // Keyset page: pass the id of the last patient received as ?after= to get the next one
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        List<Patient> patients = after == null
+                ? patientRepository.findAllByOrderByIdAsc(page)
+                : patientRepository.findByIdGreaterThanOrderByIdAsc(after, page);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (patients.size() == page.getPageSize()) {
+            response.header("X-Next-After", patients.get(patients.size() - 1).getId().toString());
+        }
+        return response.body(patients);
+    }
+
+    @GetMapping(value = "/patients/stream", produces = NdjsonStreams.NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonStreams.NDJSON))
+                .body(ndjsonStreams.body(patientRepository::streamAll));
+    }
+
+    @GetMapping("/patients/search")
+    public ResponseEntity<?> search(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(searchIndex.search(q, Math.max(1, Math.min(limit, 100))));
     }
 
     @GetMapping("/patients/{id}")
-    public ResponseEntity<?> getById(@PathVariable UUID id) {
+    public ResponseEntity<?> getById(@PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         return patientRepository.findById(id)
-                .map(ResponseEntity::ok)
+                .<ResponseEntity<?>>map(patient -> eTags.conditional(patient, ifNoneMatch))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -38,24 +87,74 @@ public class PatientController {
                     .body("Insufficient permissions to create patient profile");
         }
         try {
-            Patient saved = patientRepository.save(patient);
-            return ResponseEntity.ok(saved);
+            return ResponseEntity.ok(saveAndRecord(patient));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body("Error saving patient: " + e.getMessage());
         }
     }
 
+    // Full replacement of the patient's fields; userId is kept when omitted
     @PutMapping("/patients/{id}")
     public ResponseEntity<?> update(@PathVariable UUID id, @RequestBody Patient patient,
             @RequestHeader(value = "X-User-Role", required = false) String role) {
-        patient.setId(id);
-        return ResponseEntity.ok(patientRepository.save(patient));
+        return change(id, patient.getVersion(), existing -> {
+            if (patient.getUserId() != null) {
+                existing.setUserId(patient.getUserId());
+            }
+            existing.setFirstName(patient.getFirstName());
+            existing.setLastName(patient.getLastName());
+            existing.setBirthDate(patient.getBirthDate());
+            existing.setPhone(patient.getPhone());
+            existing.setAddress(patient.getAddress());
+        });
+    }
+
+    @PatchMapping(value = "/patients/{id}", consumes = { MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<?> patch(@PathVariable UUID id, @RequestBody JsonNode patch,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        return change(id, MergePatch.expectedVersion(patch), existing -> mergePatch.apply(existing, patch, "record"));
     }
 
     @DeleteMapping("/patients/{id}")
     public ResponseEntity<?> delete(@PathVariable UUID id) {
-        patientRepository.deleteById(id);
-        return ResponseEntity.ok().build();
+        Boolean deleted = transactionTemplate.execute(status -> {
+            if (patientRepository.removeById(id) == 0) {
+                return false;
+            }
+            outbox.record(PatientEvents.PATIENT, id, PatientEvents.PATIENT_DELETED, PatientEvents.deleted(id));
+            return true;
+        });
+        return Boolean.TRUE.equals(deleted) ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+    }
+
+    // Edits the managed row, so only changed columns are written; 409 if someone else saved first
+    private ResponseEntity<?> change(UUID id, Long expectedVersion, Consumer<Patient> edit) {
+        try {
+            Patient saved = transactionTemplate.execute(status -> {
+                Patient existing = patientRepository.findById(id).orElse(null);
+                if (existing == null) {
+                    return null;
+                }
+                MergePatch.checkVersion(Patient.class, id, expectedVersion, existing.getVersion());
+                edit.accept(existing);
+                outbox.record(PatientEvents.PATIENT, id, PatientEvents.PATIENT_SAVED, PatientEvents.patient(existing));
+                return existing;
+            });
+            return saved == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(saved);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Patient was modified by someone else, reload and retry");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // The search index picks the change up from the relayed event
+    private Patient saveAndRecord(Patient patient) {
+        return transactionTemplate.execute(status -> {
+            Patient saved = patientRepository.save(patient);
+            outbox.record(PatientEvents.PATIENT, saved.getId(), PatientEvents.PATIENT_SAVED, PatientEvents.patient(saved));
+            return saved;
+        });
     }
 }
@@ -0,0 +1,110 @@
+package com.medical.patient_service.appointments;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AppointmentIndexTest {
+
+    @Test
+    void putUpdatesTheStatusOfAKnownId() {
+        AppointmentIndex index = new AppointmentIndex(4);
+        UUID id = UUID.randomUUID();
+
+        index.put(id, AppointmentIndex.PLANNED);
+        index.put(id, AppointmentIndex.DONE);
+
+        assertEquals(AppointmentIndex.DONE, index.get(id));
+        assertEquals(AppointmentIndex.ABSENT, index.get(UUID.randomUUID()));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void rejectsTheEmptySlotMarkerAsStatus() {
+        AppointmentIndex index = new AppointmentIndex(4);
+
+        assertThrows(IllegalArgumentException.class, () -> index.put(UUID.randomUUID(), AppointmentIndex.ABSENT));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void growsPastTheExpectedSize() {
+        AppointmentIndex index = new AppointmentIndex(1);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            index.put(id, AppointmentIndex.PLANNED);
+        }
+
+        assertEquals(10_000, index.size());
+        ids.forEach(id -> assertEquals(AppointmentIndex.PLANNED, index.get(id)));
+    }
+
+    @Test
+    void removeKeepsTheRestOfACollidingProbeChainReachable() {
+        AppointmentIndex index = new AppointmentIndex(64);
+        // msb * 31 + lsb is the same for every id, so they all share one home slot
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            UUID id = new UUID(i, 42 - 31L * i);
+            ids.add(id);
+            index.put(id, AppointmentIndex.CANCELED);
+        }
+
+        for (int i = 0; i < ids.size(); i += 3) {
+            index.remove(ids.get(i));
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            byte expected = i % 3 == 0 ? AppointmentIndex.ABSENT : AppointmentIndex.CANCELED;
+            assertEquals(expected, index.get(ids.get(i)));
+        }
+        assertEquals(13, index.size());
+    }
+
+    @Test
+    void agreesWithAMapUnderRandomPutsAndRemoves() {
+        AppointmentIndex index = new AppointmentIndex(16);
+        Map<UUID, Byte> expected = new HashMap<>();
+        List<UUID> known = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            if (!known.isEmpty() && random.nextInt(3) == 0) {
+                UUID id = known.get(random.nextInt(known.size()));
+                index.remove(id);
+                expected.remove(id);
+            } else {
+                UUID id = random.nextBoolean() && !known.isEmpty()
+                        ? known.get(random.nextInt(known.size()))
+                        : new UUID(random.nextLong(), random.nextLong());
+                byte status = (byte) (1 + random.nextInt(4));
+                known.add(id);
+                index.put(id, status);
+                expected.put(id, status);
+            }
+        }
+
+        assertEquals(expected.size(), index.size());
+        for (UUID id : known) {
+            assertEquals((byte) expected.getOrDefault(id, AppointmentIndex.ABSENT), index.get(id));
+        }
+    }
+
+    @Test
+    void mapsStatusNamesToCodes() {
+        assertEquals(AppointmentIndex.PLANNED, AppointmentIndex.statusCode(null));
+        assertEquals(AppointmentIndex.PLANNED, AppointmentIndex.statusCode("PLANNED"));
+        assertEquals(AppointmentIndex.DONE, AppointmentIndex.statusCode("DONE"));
+        assertEquals(AppointmentIndex.CANCELED, AppointmentIndex.statusCode("CANCELED"));
+        assertEquals(AppointmentIndex.OTHER, AppointmentIndex.statusCode("NO_SHOW"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.medical.patient_service.entities;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedTextConverterTest {
+
+    private static final String NOTE = ("Patient presents with persistent cough and mild fever for three days. "
+            + "Blood pressure within normal range, no known allergies. Prescribed rest, hydration and "
+            + "paracetamol; follow-up consultation in one week if symptoms persist. ").repeat(4);
+
+    private final CompressedTextConverter converter = new CompressedTextConverter(true, 200);
+
+    @Test
+    void compressesLongTextAndReadsItBack() {
+        String column = converter.convertToDatabaseColumn(NOTE);
+
+        assertTrue(column.startsWith("~z1:"));
+        assertTrue(column.length() < NOTE.length() / 2, "stored " + column.length() + " chars");
+        assertEquals(NOTE, converter.convertToEntityAttribute(column));
+    }
+
+    @Test
+    void keepsShortTextAsIs() {
+        assertEquals("Routine check-up.", converter.convertToDatabaseColumn("Routine check-up."));
+    }
+
+    @Test
+    void keepsTextAsIsWhenDisabled() {
+        CompressedTextConverter disabled = new CompressedTextConverter(false, 200);
+
+        assertEquals(NOTE, disabled.convertToDatabaseColumn(NOTE));
+        assertEquals(NOTE, disabled.convertToEntityAttribute(converter.convertToDatabaseColumn(NOTE)));
+    }
+
+    @Test
+    void encodesShortTextThatLooksLikeTheMarker() {
+        for (String text : new String[] {"~z1:", "~z1:abc", "~zoom", "~z"}) {
+            String column = converter.convertToDatabaseColumn(text);
+
+            assertTrue(column.startsWith("~z1:") && !column.equals(text), text + " stored as " + column);
+            assertEquals(text, converter.convertToEntityAttribute(column));
+        }
+    }
+
+    @Test
+    void readsLegacyTextThatStartsLikeTheMarkerAsPlainText() {
+        for (String legacy : new String[] {"~zoom on the left lung", "~z2:something", "~z1:not base64!", "~z1:"}) {
+            assertEquals(legacy, converter.convertToEntityAttribute(legacy));
+        }
+    }
+
+    @Test
+    void readsPlainTextWrittenBeforeCompression() {
+        assertEquals(NOTE, converter.convertToEntityAttribute(NOTE));
+    }
+
+    @Test
+    void passesNullThrough() {
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
@@ -0,0 +1,11 @@
+package com.medical.rdv_service.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record BookingResult(LocalDateTime dateTime, String outcome, UUID id, String message) {
+    public static final String BOOKED = "BOOKED";
+    public static final String CONFLICT = "CONFLICT";
+    public static final String SKIPPED = "SKIPPED";
+    public static final String INVALID = "INVALID";
+}
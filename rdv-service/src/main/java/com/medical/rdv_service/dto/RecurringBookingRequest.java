@@ -0,0 +1,28 @@
+package com.medical.rdv_service.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A series of appointments for one doctor and patient. Occurrences are either listed
+ * explicitly in {@code dates}, or generated from {@code firstDateTime} every
+ * {@code intervalDays} days, {@code occurrences} times.
+ */
+@Data
+public class RecurringBookingRequest {
+    private UUID doctorId;
+    private UUID patientId;
+    private int durationMinutes = 30;
+
+    private List<LocalDateTime> dates;
+
+    private LocalDateTime firstDateTime;
+    private int intervalDays = 7;
+    private int occurrences;
+
+    // When true, nothing is booked if any occurrence conflicts
+    private boolean atomic;
+}
@@ -0,0 +1,6 @@
+package com.medical.rdv_service.dto;
+
+import java.time.LocalDateTime;
+
+public record TimeSlot(LocalDateTime start, LocalDateTime end) {
+}
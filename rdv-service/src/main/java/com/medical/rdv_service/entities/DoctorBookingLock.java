@@ -0,0 +1,24 @@
+package com.medical.rdv_service.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * One row per doctor, locked FOR UPDATE by every booking transaction of that doctor, so
+ * the overlap check and the insert are serialized across all rdv-service instances.
+ */
+@Entity
+@Table(name = "doctor_booking_lock")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorBookingLock {
+    @Id
+    private UUID doctorId;
+}
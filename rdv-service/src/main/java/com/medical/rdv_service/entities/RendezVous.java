@@ -5,21 +5,32 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@DynamicUpdate
+@Table(indexes = @Index(name = "idx_rdv_doctor_date_time", columnList = "doctor_id, date_time"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class RendezVous {
+    public static final int DEFAULT_DURATION_MINUTES = 30;
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
+    // Optimistic lock; existing rows start at 0 when the column is added
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     private LocalDateTime dateTime;
+    private LocalDateTime endDateTime; // defaults to dateTime + 30 min
 
     private UUID patientId; // Auth-Service userId
     private UUID doctorId; // Auth-Service userId
@@ -33,5 +44,12 @@ public class RendezVous {
         createdAt = LocalDateTime.now();
         if (status == null)
             status = "PLANNED";
+        onUpdate();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        if (endDateTime == null && dateTime != null)
+            endDateTime = dateTime.plusMinutes(DEFAULT_DURATION_MINUTES);
     }
 }
@@ -0,0 +1,18 @@
+package com.medical.rdv_service.repositories;
+
+import com.medical.rdv_service.entities.DoctorBookingLock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface DoctorBookingLockRepository extends JpaRepository<DoctorBookingLock, UUID> {
+    // SELECT ... FOR UPDATE: held until the booking transaction commits or rolls back
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM DoctorBookingLock l WHERE l.doctorId = :doctorId")
+    Optional<DoctorBookingLock> lock(@Param("doctorId") UUID doctorId);
+}
@@ -1,23 +1,77 @@
 package com.medical.rdv_service.repositories;
 
 import com.medical.rdv_service.entities.RendezVous;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.UUID;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface RendezVousRepository extends JpaRepository<RendezVous, UUID> {
-    List<RendezVous> findTop3ByDoctorIdAndDateTimeAfterOrderByDateTimeAsc(UUID doctorId,
-            java.time.LocalDateTime dateTime);
+    // Agenda cold paths (dates before the in-memory horizon), served by idx_rdv_doctor_date_time
+    List<RendezVous> findByDoctorIdAndDateTimeAfterAndStatusNotOrderByDateTimeAsc(UUID doctorId,
+            java.time.LocalDateTime dateTime, String status, Pageable pageable);
+
+    @org.springframework.data.jpa.repository.Query("SELECT r FROM RendezVous r WHERE r.doctorId = :doctorId "
+            + "AND r.dateTime >= :from AND r.dateTime < :to AND r.status <> 'CANCELED' ORDER BY r.dateTime")
+    List<RendezVous> findAgenda(@org.springframework.data.repository.query.Param("doctorId") UUID doctorId,
+            @org.springframework.data.repository.query.Param("from") java.time.LocalDateTime from,
+            @org.springframework.data.repository.query.Param("to") java.time.LocalDateTime to);
+
+    @org.springframework.data.jpa.repository.Query("SELECT CAST(r.dateTime AS LocalDate), COUNT(r) FROM RendezVous r "
+            + "WHERE r.doctorId = :doctorId AND r.dateTime >= :from AND r.dateTime < :to AND r.status <> 'CANCELED' "
+            + "GROUP BY CAST(r.dateTime AS LocalDate)")
+    List<Object[]> countPerDay(@org.springframework.data.repository.query.Param("doctorId") UUID doctorId,
+            @org.springframework.data.repository.query.Param("from") java.time.LocalDateTime from,
+            @org.springframework.data.repository.query.Param("to") java.time.LocalDateTime to);
+
+    List<RendezVous> findAllByOrderByIdAsc(Pageable pageable);
+
+    List<RendezVous> findByIdGreaterThanOrderByIdAsc(UUID after, Pageable pageable);
+
+    // Rows are pulled from the cursor in chunks (needs useCursorFetch=true on MySQL)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @org.springframework.data.jpa.repository.Query("SELECT r FROM RendezVous r ORDER BY r.id")
+    Stream<RendezVous> streamAll();
+
+    // (id, status) pairs for the appointment index snapshot served to other services
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @org.springframework.data.jpa.repository.Query("SELECT r.id, r.status FROM RendezVous r")
+    Stream<Object[]> streamIdsAndStatuses();
 
     boolean existsByDoctorIdAndDateTimeBetween(UUID doctorId, java.time.LocalDateTime start,
             java.time.LocalDateTime end);
 
-    // Check if there is any appointment that starts within the conflict range
-    // effectively checks: existing.start < new.end && existing.end > new.start
-    // Since we only store start time, we assume 30 min duration.
-    // So we check if existing.start is in (newStart - 30m, newStart + 30m)
-    @org.springframework.data.jpa.repository.Query("SELECT COUNT(r) > 0 FROM RendezVous r WHERE r.doctorId = :doctorId AND r.dateTime > :start AND r.dateTime < :end")
+    // Used to warm the in-memory scheduling index for the active horizon
+    List<RendezVous> findByDateTimeGreaterThanEqualAndStatusNot(java.time.LocalDateTime from, String status);
+
+    List<RendezVous> findByDoctorIdAndDateTimeBetweenAndStatusNot(UUID doctorId, java.time.LocalDateTime start,
+            java.time.LocalDateTime end, String status);
+
+    // Everything that can still collide with a batch booking; rows without a status count as active
+    @org.springframework.data.jpa.repository.Query("SELECT r FROM RendezVous r WHERE r.doctorId = :doctorId "
+            + "AND (r.status IS NULL OR r.status <> 'CANCELED') AND r.dateTime >= :from AND r.dateTime < :to")
+    List<RendezVous> findActiveStartingBetween(@org.springframework.data.repository.query.Param("doctorId") UUID doctorId,
+            @org.springframework.data.repository.query.Param("from") java.time.LocalDateTime from,
+            @org.springframework.data.repository.query.Param("to") java.time.LocalDateTime to);
+
+    // Booking check, run under the doctor's lock row:
+    // existing.start < new.end && existing.end > new.start.
+    // Rows created before endDateTime existed are treated as 30 min long (legacyStart = new.start - 30m).
+    @org.springframework.data.jpa.repository.Query("SELECT COUNT(r) > 0 FROM RendezVous r WHERE r.doctorId = :doctorId "
+            + "AND (r.status IS NULL OR r.status <> 'CANCELED') AND r.id <> :excludeId AND r.dateTime < :end "
+            + "AND (r.endDateTime > :start OR (r.endDateTime IS NULL AND r.dateTime > :legacyStart))")
     boolean hasOverlappingAppointments(@org.springframework.data.repository.query.Param("doctorId") UUID doctorId,
             @org.springframework.data.repository.query.Param("start") java.time.LocalDateTime start,
-            @org.springframework.data.repository.query.Param("end") java.time.LocalDateTime end);
+            @org.springframework.data.repository.query.Param("end") java.time.LocalDateTime end,
+            @org.springframework.data.repository.query.Param("legacyStart") java.time.LocalDateTime legacyStart,
+            @org.springframework.data.repository.query.Param("excludeId") UUID excludeId);
+
+    // Returns the number of rows removed, so the caller knows whether there was anything to delete
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query("DELETE FROM RendezVous r WHERE r.id = :id")
+    int deleteRowById(@org.springframework.data.repository.query.Param("id") UUID id);
 }
@@ -0,0 +1,130 @@
+package com.medical.rdv_service.services;
+
+import com.medical.rdv_service.entities.RendezVous;
+import com.medical.rdv_service.repositories.RendezVousRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Materialized agenda per doctor from the first day of the current month onwards,
+ * warmed at startup, updated by RdvService after each change it commits and by
+ * {@link RdvChangeSubscriber} for changes committed through other instances.
+ * Canceled appointments are left out. Questions about earlier dates go to the
+ * database through the (doctor_id, date_time) index.
+ */
+@Component
+@RequiredArgsConstructor
+public class AgendaIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgendaIndex.class);
+    private static final DoctorAgenda EMPTY_AGENDA = new DoctorAgenda();
+
+    private final RendezVousRepository rdvRepo;
+
+    private final Map<UUID, DoctorAgenda> agendas = new ConcurrentHashMap<>();
+    private final Map<UUID, DoctorAgenda.Entry> entries = new ConcurrentHashMap<>();
+    private volatile long horizonStart = Long.MAX_VALUE; // nothing is served from memory until warmed
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDateTime from = YearMonth.now().atDay(1).atStartOfDay();
+        List<RendezVous> active = rdvRepo.findByDateTimeGreaterThanEqualAndStatusNot(from, "CANCELED");
+        active.forEach(this::upsert);
+        horizonStart = DoctorCalendar.toEpochMinute(from);
+        logger.info("Agenda index warmed with {} appointments from {}", active.size(), from);
+    }
+
+    @Scheduled(cron = "0 5 3 1 * *")
+    public void evictPastMonths() {
+        long from = DoctorCalendar.toEpochMinute(YearMonth.now().atDay(1).atStartOfDay());
+        entries.values().removeIf(entry -> DoctorCalendar.toEpochMinute(entry.dateTime()) < from);
+        agendas.values().forEach(agenda -> agenda.removeStartingBefore(from));
+        horizonStart = Math.max(horizonStart, from);
+    }
+
+    // Entry swaps run inside compute, so concurrent updates of one id cannot leave an orphan in an agenda
+    public void upsert(RendezVous rdv) {
+        if (rdv.getId() == null) {
+            return;
+        }
+        boolean indexable = rdv.getDoctorId() != null && rdv.getDateTime() != null
+                && !"CANCELED".equalsIgnoreCase(rdv.getStatus());
+        entries.compute(rdv.getId(), (id, previous) -> {
+            removeFromAgenda(previous);
+            if (!indexable) {
+                return null;
+            }
+            DoctorAgenda.Entry entry = DoctorAgenda.Entry.of(rdv);
+            agendas.computeIfAbsent(rdv.getDoctorId(), doctorId -> new DoctorAgenda()).add(entry);
+            return entry;
+        });
+    }
+
+    public void remove(UUID id) {
+        entries.computeIfPresent(id, (key, previous) -> {
+            removeFromAgenda(previous);
+            return null;
+        });
+    }
+
+    private void removeFromAgenda(DoctorAgenda.Entry entry) {
+        if (entry != null) {
+            agendas.getOrDefault(entry.doctorId(), EMPTY_AGENDA).remove(entry);
+        }
+    }
+
+    public List<RendezVous> next(UUID doctorId, LocalDateTime from, int limit) {
+        long fromMinute = DoctorCalendar.toEpochMinute(from);
+        if (fromMinute < horizonStart) {
+            return rdvRepo.findByDoctorIdAndDateTimeAfterAndStatusNotOrderByDateTimeAsc(doctorId, from, "CANCELED",
+                    PageRequest.of(0, limit));
+        }
+        return agendas.getOrDefault(doctorId, EMPTY_AGENDA).next(fromMinute, limit).stream()
+                .map(DoctorAgenda.Entry::toRendezVous)
+                .toList();
+    }
+
+    public List<RendezVous> day(UUID doctorId, LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        long fromMinute = DoctorCalendar.toEpochMinute(from);
+        if (fromMinute < horizonStart) {
+            return rdvRepo.findAgenda(doctorId, from, from.plusDays(1));
+        }
+        return agendas.getOrDefault(doctorId, EMPTY_AGENDA)
+                .between(fromMinute, fromMinute + DoctorAgenda.MINUTES_PER_DAY).stream()
+                .map(DoctorAgenda.Entry::toRendezVous)
+                .toList();
+    }
+
+    /** Appointment count for every day of the month that has at least one. */
+    public Map<LocalDate, Integer> countsPerDay(UUID doctorId, YearMonth month) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        Map<LocalDate, Integer> counts = new TreeMap<>();
+        if (DoctorCalendar.toEpochMinute(from) < horizonStart) {
+            for (Object[] row : rdvRepo.countPerDay(doctorId, from, from.plusMonths(1))) {
+                counts.put((LocalDate) row[0], ((Number) row[1]).intValue());
+            }
+            return counts;
+        }
+        long fromDay = month.atDay(1).toEpochDay();
+        agendas.getOrDefault(doctorId, EMPTY_AGENDA)
+                .countsByDay(fromDay, fromDay + month.lengthOfMonth())
+                .forEach((day, count) -> counts.put(LocalDate.ofEpochDay(day), count));
+        return counts;
+    }
+}
@@ -0,0 +1,94 @@
+package com.medical.rdv_service.services;
+
+import com.medical.rdv_service.entities.RendezVous;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * One doctor's appointments ordered by start, plus a running count per day.
+ * Reads are lock-free; writers synchronize on the agenda so entries and counts stay in step.
+ */
+public class DoctorAgenda {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    /** Immutable copy of an appointment, safe to share between threads. */
+    public record Entry(UUID id, Long version, UUID doctorId, UUID patientId, LocalDateTime dateTime, LocalDateTime endDateTime,
+            String status, LocalDateTime createdAt) {
+
+        static Entry of(RendezVous rdv) {
+            return new Entry(rdv.getId(), rdv.getVersion(), rdv.getDoctorId(), rdv.getPatientId(), rdv.getDateTime(),
+                    rdv.getEndDateTime(), rdv.getStatus(), rdv.getCreatedAt());
+        }
+
+        RendezVous toRendezVous() {
+            return RendezVous.builder()
+                    .id(id).version(version).doctorId(doctorId).patientId(patientId)
+                    .dateTime(dateTime).endDateTime(endDateTime)
+                    .status(status).createdAt(createdAt)
+                    .build();
+        }
+    }
+
+    private record Key(long startMinute, UUID id) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byStart = Long.compare(startMinute, other.startMinute);
+            return byStart != 0 ? byStart : id.compareTo(other.id);
+        }
+    }
+
+    private static final UUID LOWEST_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    private final ConcurrentSkipListMap<Key, Entry> byStart = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Long, Integer> countsByDay = new ConcurrentSkipListMap<>();
+
+    synchronized void add(Entry entry) {
+        long start = DoctorCalendar.toEpochMinute(entry.dateTime());
+        if (byStart.put(new Key(start, entry.id()), entry) == null) {
+            countsByDay.merge(Math.floorDiv(start, MINUTES_PER_DAY), 1, Integer::sum);
+        }
+    }
+
+    synchronized void remove(Entry entry) {
+        long start = DoctorCalendar.toEpochMinute(entry.dateTime());
+        if (byStart.remove(new Key(start, entry.id())) != null) {
+            countsByDay.computeIfPresent(Math.floorDiv(start, MINUTES_PER_DAY), (day, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    synchronized void removeStartingBefore(long minute) {
+        NavigableMap<Key, Entry> past = byStart.headMap(new Key(minute, LOWEST_ID), false);
+        past.clear();
+        countsByDay.headMap(Math.floorDiv(minute, MINUTES_PER_DAY), false).clear();
+    }
+
+    /** First {@code limit} appointments starting at or after {@code fromMinute}. */
+    public List<Entry> next(long fromMinute, int limit) {
+        List<Entry> result = new ArrayList<>(limit);
+        for (Entry entry : byStart.tailMap(new Key(fromMinute, LOWEST_ID), true).values()) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+
+    /** Appointments starting in [fromMinute, toMinute). */
+    public List<Entry> between(long fromMinute, long toMinute) {
+        return new ArrayList<>(byStart.subMap(new Key(fromMinute, LOWEST_ID), true,
+                new Key(toMinute, LOWEST_ID), false).values());
+    }
+
+    /** Appointment count per epoch day in [fromDay, toDay); days without appointments are absent. */
+    public Map<Long, Integer> countsByDay(long fromDay, long toDay) {
+        return countsByDay.subMap(fromDay, true, toDay, false);
+    }
+}
@@ -0,0 +1,101 @@
+package com.medical.rdv_service.services;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Booked intervals of one doctor, ordered by (start, id) in epoch minutes, so bookings
+ * that share a start minute are all kept. Only bookings that start within the longest
+ * booked duration before a candidate's end can collide with it, so an overlap check is
+ * a bounded range scan and stays correct even if stored rows overlap each other.
+ * Reads are lock-free; check-then-insert must be done under the doctor's lock.
+ */
+public class DoctorCalendar {
+
+    public record Booking(UUID id, long start, long end) {
+    }
+
+    private record Key(long start, UUID id) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byStart = Long.compare(start, other.start);
+            return byStart != 0 ? byStart : id.compareTo(other.id);
+        }
+    }
+
+    private static final UUID LOWEST_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    private final ConcurrentSkipListMap<Key, Booking> byStart = new ConcurrentSkipListMap<>();
+    private final AtomicLong longestDuration = new AtomicLong();
+
+    public static long toEpochMinute(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    public static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+
+    public boolean overlaps(long start, long end, UUID ignoredId) {
+        for (Booking booking : startingBetween(start - longestDuration.get(), end)) {
+            if (booking.end() > start && !booking.id().equals(ignoredId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Free gaps of at least {@code duration} minutes in [from, to), packed as
+     * {@code [start0, end0, start1, end1, ...]} in epoch minutes.
+     */
+    public long[] freeSlots(long from, long to, long duration) {
+        long[] slots = new long[8];
+        int size = 0;
+        long cursor = from;
+        // Bookings starting before {@code from} only push the cursor past their end
+        for (Booking booking : startingBetween(from - longestDuration.get(), to)) {
+            if (booking.start() - cursor >= duration) {
+                if (size + 2 > slots.length) {
+                    slots = Arrays.copyOf(slots, slots.length * 2);
+                }
+                slots[size++] = cursor;
+                slots[size++] = booking.start();
+            }
+            cursor = Math.max(cursor, booking.end());
+        }
+        if (to - cursor >= duration) {
+            if (size + 2 > slots.length) {
+                slots = Arrays.copyOf(slots, slots.length + 2);
+            }
+            slots[size++] = cursor;
+            slots[size++] = to;
+        }
+        return Arrays.copyOf(slots, size);
+    }
+
+    public void add(Booking booking) {
+        longestDuration.accumulateAndGet(booking.end() - booking.start(), Math::max);
+        byStart.put(new Key(booking.start(), booking.id()), booking);
+    }
+
+    public void remove(Booking booking) {
+        byStart.remove(new Key(booking.start(), booking.id()), booking);
+    }
+
+    public void removeEndingBefore(long epochMinute) {
+        byStart.headMap(new Key(epochMinute, LOWEST_ID)).values().removeIf(b -> b.end() <= epochMinute);
+    }
+
+    public boolean isEmpty() {
+        return byStart.isEmpty();
+    }
+
+    private Iterable<Booking> startingBetween(long fromInclusive, long toExclusive) {
+        return byStart.subMap(new Key(fromInclusive, LOWEST_ID), new Key(toExclusive, LOWEST_ID)).values();
+    }
+}
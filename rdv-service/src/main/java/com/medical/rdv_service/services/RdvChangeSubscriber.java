@@ -0,0 +1,55 @@
+package com.medical.rdv_service.services;
+
+import com.medical.common.events.DomainEvent;
+import com.medical.common.events.DomainEventSubscriber;
+import com.medical.rdv_service.entities.RendezVous;
+import com.medical.rdv_service.repositories.RendezVousRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies appointment changes made through any instance to this instance's agenda and
+ * booking calendars. Rows are reloaded by id, so whatever the order of a batch, both
+ * indexes end up with what the database holds now.
+ */
+@Component
+@RequiredArgsConstructor
+public class RdvChangeSubscriber implements DomainEventSubscriber {
+
+    private final RendezVousRepository rdvRepo;
+    private final AgendaIndex agendaIndex;
+    private final SchedulingEngine schedulingEngine;
+
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        Set<UUID> ids = new LinkedHashSet<>();
+        for (DomainEvent event : events) {
+            if (RdvService.AGGREGATE_TYPE.equals(event.aggregateType())) {
+                ids.add(event.aggregateId());
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<UUID, RendezVous> current = rdvRepo.findAllById(ids).stream()
+                .collect(Collectors.toMap(RendezVous::getId, Function.identity()));
+        for (UUID id : ids) {
+            RendezVous rdv = current.get(id);
+            if (rdv == null) {
+                agendaIndex.remove(id);
+                schedulingEngine.cancel(id);
+            } else {
+                agendaIndex.upsert(rdv);
+                schedulingEngine.refresh(rdv);
+            }
+        }
+    }
+}
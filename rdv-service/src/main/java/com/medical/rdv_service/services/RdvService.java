@@ -1,50 +1,259 @@
 package com.medical.rdv_service.services;
 
+import com.medical.common.events.DomainEvent;
+import com.medical.common.events.Outbox;
+import com.medical.rdv_service.dto.BookingResult;
+import com.medical.rdv_service.dto.RecurringBookingRequest;
+import com.medical.rdv_service.dto.TimeSlot;
 import com.medical.rdv_service.entities.RendezVous;
 import com.medical.rdv_service.repositories.RendezVousRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.UUID;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class RdvService {
     private final RendezVousRepository rdvRepo;
+    private final SchedulingEngine schedulingEngine;
+    private final AgendaIndex agendaIndex;
+    private final Outbox outbox;
+    private final TransactionTemplate transactionTemplate;
+
+    public static final String AGGREGATE_TYPE = "RendezVous";
+    public static final String RDV_CREATED = "RDV_CREATED";
+    public static final String RDV_UPDATED = "RDV_UPDATED";
+    public static final String RDV_DELETED = "RDV_DELETED";
+
+    private static final int MAX_AVAILABILITY_DAYS = 62;
+    private static final int MAX_SERIES_SIZE = 100;
 
     public RendezVous getRdv(UUID id) {
         return rdvRepo.findById(id).orElse(null);
     }
 
+    public List<RendezVous> getRdvs(Collection<UUID> ids) {
+        return rdvRepo.findAllById(ids);
+    }
+
     public List<RendezVous> getAllRdvs() {
         return rdvRepo.findAll();
     }
 
+    public List<RendezVous> getPage(UUID after, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return after == null
+                ? rdvRepo.findAllByOrderByIdAsc(page)
+                : rdvRepo.findByIdGreaterThanOrderByIdAsc(after, page);
+    }
+
+    public Stream<RendezVous> streamAll() {
+        return rdvRepo.streamAll();
+    }
+
+    /**
+     * Writes every appointment as 17 bytes: id (most then least significant long)
+     * followed by a status code, see {@link #statusCode(String)}.
+     */
+    @Transactional(readOnly = true)
+    public void writeIndexSnapshot(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        try (Stream<Object[]> rows = rdvRepo.streamIdsAndStatuses()) {
+            rows.forEach(row -> {
+                UUID id = (UUID) row[0];
+                try {
+                    data.writeLong(id.getMostSignificantBits());
+                    data.writeLong(id.getLeastSignificantBits());
+                    data.writeByte(statusCode((String) row[1]));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        data.flush();
+    }
+
+    // 1 = PLANNED (or unset), 2 = DONE, 3 = CANCELED, 4 = anything else
+    public static byte statusCode(String status) {
+        if (status == null || "PLANNED".equals(status))
+            return 1;
+        if ("DONE".equals(status))
+            return 2;
+        if ("CANCELED".equals(status))
+            return 3;
+        return 4;
+    }
+
     public List<RendezVous> getUpcomingAppointments(UUID doctorId) {
-        return rdvRepo.findTop3ByDoctorIdAndDateTimeAfterOrderByDateTimeAsc(doctorId, java.time.LocalDateTime.now());
+        return agendaIndex.next(doctorId, LocalDateTime.now(), 3);
+    }
+
+    public List<RendezVous> getNextAppointments(UUID doctorId, int limit) {
+        return agendaIndex.next(doctorId, LocalDateTime.now(), limit);
+    }
+
+    public List<RendezVous> getDayAgenda(UUID doctorId, LocalDate day) {
+        return agendaIndex.day(doctorId, day);
+    }
+
+    public Map<LocalDate, Integer> getMonthCounts(UUID doctorId, YearMonth month) {
+        return agendaIndex.countsPerDay(doctorId, month);
+    }
+
+    public Map<UUID, List<TimeSlot>> getAvailability(List<UUID> doctorIds, LocalDateTime from, LocalDateTime to,
+            int durationMinutes) {
+        if (from == null || to == null || !to.isAfter(from) || durationMinutes <= 0) {
+            throw new IllegalArgumentException("Expected from < to and a positive duration");
+        }
+        if (from.plusDays(MAX_AVAILABILITY_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Availability window is limited to " + MAX_AVAILABILITY_DAYS + " days");
+        }
+        Map<UUID, List<TimeSlot>> availability = new LinkedHashMap<>();
+        for (UUID doctorId : doctorIds) {
+            availability.put(doctorId, schedulingEngine.findFreeSlots(doctorId, from, to, durationMinutes));
+        }
+        return availability;
     }
 
     public RendezVous save(RendezVous rdv) {
-        // Validation: Check for overlap
-        // Assume 30 min duration
-        java.time.LocalDateTime start = rdv.getDateTime();
-        java.time.LocalDateTime conflictStart = start.minusMinutes(30);
-        java.time.LocalDateTime conflictEnd = start.plusMinutes(30);
+        // Validation: overlap check and insert happen in one transaction under the doctor's lock row;
+        // the row and its outbox event commit together
+        RendezVous saved = schedulingEngine.book(rdv, toSave -> {
+            RendezVous row = rdvRepo.save(toSave);
+            recordChange(row, RDV_CREATED);
+            return row;
+        });
+        agendaIndex.upsert(saved);
+        return saved;
+    }
 
-        if (rdvRepo.hasOverlappingAppointments(rdv.getDoctorId(), conflictStart, conflictEnd)) {
-            throw new RuntimeException("Time slot overlaps with an existing appointment");
+    public List<BookingResult> saveSeries(RecurringBookingRequest request) {
+        if (request.getDoctorId() == null || request.getDurationMinutes() <= 0) {
+            throw new IllegalArgumentException("doctorId and a positive durationMinutes are required");
+        }
+        List<LocalDateTime> dates = request.getDates();
+        if (dates == null || dates.isEmpty()) {
+            if (request.getFirstDateTime() == null || request.getOccurrences() <= 0 || request.getIntervalDays() <= 0) {
+                throw new IllegalArgumentException("Either dates or firstDateTime, intervalDays and occurrences are required");
+            }
+            dates = new ArrayList<>();
+            for (int i = 0; i < request.getOccurrences() && i < MAX_SERIES_SIZE + 1; i++) {
+                dates.add(request.getFirstDateTime().plusDays((long) i * request.getIntervalDays()));
+            }
+        }
+        if (dates.size() > MAX_SERIES_SIZE) {
+            throw new IllegalArgumentException("A series is limited to " + MAX_SERIES_SIZE + " occurrences");
+        }
+        if (dates.contains(null)) {
+            throw new IllegalArgumentException("Every occurrence needs a date");
         }
 
-        return rdvRepo.save(rdv);
+        List<RendezVous> series = new ArrayList<>(dates.size());
+        for (LocalDateTime date : dates) {
+            series.add(RendezVous.builder()
+                    .doctorId(request.getDoctorId())
+                    .patientId(request.getPatientId())
+                    .dateTime(date)
+                    .endDateTime(date.plusMinutes(request.getDurationMinutes()))
+                    .build());
+        }
+        // saveAll runs in one transaction; appointment and outbox inserts go out as JDBC batches
+        // (hibernate.jdbc.batch_size, ids assigned before insert, rewriteBatchedStatements on the MySQL URL)
+        List<RendezVous> booked = new ArrayList<>();
+        List<BookingResult> results = schedulingEngine.bookAll(request.getDoctorId(), series, request.isAtomic(),
+                accepted -> {
+                    List<RendezVous> rows = rdvRepo.saveAll(accepted);
+                    rows.forEach(rdv -> recordChange(rdv, RDV_CREATED));
+                    booked.addAll(rows);
+                    return rows;
+                });
+        booked.forEach(agendaIndex::upsert);
+        return results;
     }
 
-    public RendezVous update(UUID id, RendezVous rdv) {
-        rdv.setId(id);
-        return rdvRepo.save(rdv);
+    /**
+     * Edits a copy of the stored appointment, checks the result against the doctor's calendar,
+     * then writes only the changed fields onto the row. A non-null {@code expectedVersion} that
+     * no longer matches, or a concurrent write, fails with an OptimisticLockingFailureException.
+     */
+    public RendezVous update(UUID id, Long expectedVersion, UnaryOperator<RendezVous> edit) {
+        RendezVous current = rdvRepo.findById(id).orElseThrow(() -> new NoSuchElementException("Rendez-vous not found"));
+        RendezVous candidate = edit.apply(copyOf(current));
+        candidate.setId(id);
+        RendezVous updated = schedulingEngine.book(candidate, toSave -> {
+            RendezVous existing = rdvRepo.findById(id).orElseThrow(() -> new NoSuchElementException("Rendez-vous not found"));
+            if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(RendezVous.class, id);
+            }
+            existing.setDateTime(toSave.getDateTime());
+            existing.setEndDateTime(toSave.getEndDateTime());
+            existing.setPatientId(toSave.getPatientId());
+            existing.setDoctorId(toSave.getDoctorId());
+            existing.setStatus(toSave.getStatus());
+            RendezVous saved = rdvRepo.saveAndFlush(existing);
+            recordChange(saved, RDV_UPDATED);
+            return saved;
+        });
+        agendaIndex.upsert(updated);
+        return updated;
     }
 
     public void delete(UUID id) {
-        rdvRepo.deleteById(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (rdvRepo.deleteRowById(id) > 0) {
+                outbox.record(AGGREGATE_TYPE, id, RDV_DELETED, Map.of("id", id));
+            }
+        });
+        schedulingEngine.cancel(id);
+        agendaIndex.remove(id);
+    }
+
+    private static RendezVous copyOf(RendezVous rdv) {
+        return RendezVous.builder()
+                .id(rdv.getId()).version(rdv.getVersion())
+                .doctorId(rdv.getDoctorId()).patientId(rdv.getPatientId())
+                .dateTime(rdv.getDateTime()).endDateTime(rdv.getEndDateTime())
+                .status(rdv.getStatus()).createdAt(rdv.getCreatedAt())
+                .build();
+    }
+
+    public List<DomainEvent> getEventsAfter(long after, int limit) {
+        return outbox.eventsAfter(after, limit);
+    }
+
+    public long getLatestEventPosition() {
+        return outbox.latestPosition();
+    }
+
+    private void recordChange(RendezVous rdv, String type) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", rdv.getId());
+        payload.put("doctorId", rdv.getDoctorId());
+        payload.put("patientId", rdv.getPatientId());
+        payload.put("dateTime", rdv.getDateTime());
+        payload.put("endDateTime", rdv.getEndDateTime());
+        payload.put("status", rdv.getStatus());
+        outbox.record(AGGREGATE_TYPE, rdv.getId(), type, payload);
     }
 }
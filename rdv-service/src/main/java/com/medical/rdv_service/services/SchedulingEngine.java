@@ -0,0 +1,361 @@
+package com.medical.rdv_service.services;
+
+import com.medical.rdv_service.dto.BookingResult;
+import com.medical.rdv_service.dto.TimeSlot;
+import com.medical.rdv_service.entities.DoctorBookingLock;
+import com.medical.rdv_service.entities.RendezVous;
+import com.medical.rdv_service.repositories.DoctorBookingLockRepository;
+import com.medical.rdv_service.repositories.RendezVousRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory booking index per doctor for the active horizon (yesterday onwards),
+ * warmed from the database at startup and kept current with bookings made through other
+ * instances by {@link RdvChangeSubscriber}. It serves free-slot searches and rejects
+ * obvious conflicts without a query; the decision to book is always taken by the
+ * database: the doctor's {@link DoctorBookingLock} row is locked, overlaps are counted
+ * and the appointment is inserted in one transaction, so instances that do not see
+ * each other's memory still cannot double-book a slot. The striped in-process lock
+ * only keeps requests of the same instance from queueing on that row.
+ */
+@Component
+public class SchedulingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulingEngine.class);
+    private static final int LOCK_STRIPES = 64;
+    private static final UUID NO_ID = new UUID(0L, 0L);
+    private static final DoctorCalendar EMPTY_CALENDAR = new DoctorCalendar();
+
+    private static final String OVERLAP = "Time slot overlaps with an existing appointment";
+
+    private final RendezVousRepository rdvRepo;
+    private final DoctorBookingLockRepository bookingLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransaction;
+
+    private final Map<UUID, DoctorCalendar> calendars = new ConcurrentHashMap<>();
+    private final Map<UUID, Indexed> bookings = new ConcurrentHashMap<>();
+    private final Set<UUID> lockRows = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock[] stripes = createStripes();
+    private volatile long horizonStart = Long.MAX_VALUE; // nothing is served from memory until warmed
+
+    private record Indexed(UUID doctorId, DoctorCalendar.Booking booking) {
+    }
+
+    public SchedulingEngine(RendezVousRepository rdvRepo, DoctorBookingLockRepository bookingLocks,
+            PlatformTransactionManager transactionManager) {
+        this.rdvRepo = rdvRepo;
+        this.bookingLocks = bookingLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDateTime from = LocalDate.now().minusDays(1).atStartOfDay();
+        List<RendezVous> active = rdvRepo.findByDateTimeGreaterThanEqualAndStatusNot(from, "CANCELED");
+        active.forEach(this::index);
+        horizonStart = DoctorCalendar.toEpochMinute(from);
+        logger.info("Scheduling index warmed with {} appointments from {}", active.size(), from);
+    }
+
+    @Scheduled(cron = "0 0 3 * * *")
+    public void evictPast() {
+        long from = DoctorCalendar.toEpochMinute(LocalDate.now().minusDays(1).atStartOfDay());
+        bookings.values().removeIf(i -> i.booking().end() <= from);
+        calendars.values().forEach(c -> c.removeEndingBefore(from));
+        horizonStart = Math.max(horizonStart, from);
+    }
+
+    /**
+     * Checks the slot and persists the appointment in one transaction holding the doctor's
+     * lock row; {@code saver} runs inside that transaction. Throws an IllegalArgumentException
+     * for an invalid appointment and a RuntimeException when the slot overlaps an existing one.
+     */
+    public RendezVous book(RendezVous rdv, UnaryOperator<RendezVous> saver) {
+        String problem = validate(rdv);
+        if (problem != null) {
+            throw new IllegalArgumentException(problem);
+        }
+        if (rdv.getDoctorId() == null) {
+            return transactionTemplate.execute(status -> saver.apply(rdv));
+        }
+
+        boolean active = !"CANCELED".equalsIgnoreCase(rdv.getStatus());
+        ensureLockRow(rdv.getDoctorId());
+        ReentrantLock lock = lockFor(rdv.getDoctorId());
+        lock.lock();
+        try {
+            // Fast reject: a conflict this instance already knows about needs no round trip
+            if (active && overlapsInMemory(rdv)) {
+                throw new RuntimeException(OVERLAP);
+            }
+            RendezVous saved = transactionTemplate.execute(status -> {
+                bookingLocks.lock(rdv.getDoctorId());
+                if (active && overlapsInDatabase(rdv)) {
+                    throw new RuntimeException(OVERLAP);
+                }
+                return saver.apply(rdv);
+            });
+            index(saved);
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Books a series for one doctor in one transaction holding the doctor's lock row: every
+     * occurrence is checked against the doctor's appointments in the database and the earlier
+     * occurrences of the same series, then the accepted ones are persisted together by
+     * {@code saver}, which runs inside that transaction.
+     */
+    public List<BookingResult> bookAll(UUID doctorId, List<RendezVous> series, boolean atomic,
+            UnaryOperator<List<RendezVous>> saver) {
+        ensureLockRow(doctorId);
+        ReentrantLock lock = lockFor(doctorId);
+        lock.lock();
+        try {
+            List<RendezVous> saved = new ArrayList<>();
+            List<BookingResult> results = transactionTemplate.execute(status -> {
+                bookingLocks.lock(doctorId);
+                DoctorCalendar booked = loadCalendar(doctorId, series);
+                DoctorCalendar pending = new DoctorCalendar();
+                List<RendezVous> accepted = new ArrayList<>();
+                List<BookingResult> outcome = new ArrayList<>(series.size());
+                for (RendezVous rdv : series) {
+                    String problem = validate(rdv);
+                    if (problem != null) {
+                        outcome.add(new BookingResult(rdv.getDateTime(), BookingResult.INVALID, null, problem));
+                        continue;
+                    }
+                    long start = DoctorCalendar.toEpochMinute(rdv.getDateTime());
+                    long end = DoctorCalendar.toEpochMinute(rdv.getEndDateTime());
+                    if (booked.overlaps(start, end, NO_ID) || pending.overlaps(start, end, NO_ID)) {
+                        outcome.add(new BookingResult(rdv.getDateTime(), BookingResult.CONFLICT, null, OVERLAP));
+                    } else {
+                        pending.add(new DoctorCalendar.Booking(UUID.randomUUID(), start, end));
+                        accepted.add(rdv);
+                        outcome.add(null);
+                    }
+                }
+
+                boolean rejectAll = atomic && accepted.size() < series.size();
+                saved.addAll(rejectAll || accepted.isEmpty() ? List.of() : saver.apply(accepted));
+
+                int next = 0;
+                for (int i = 0; i < outcome.size(); i++) {
+                    if (outcome.get(i) == null) {
+                        RendezVous rdv = rejectAll ? series.get(i) : saved.get(next++);
+                        outcome.set(i, rejectAll
+                                ? new BookingResult(rdv.getDateTime(), BookingResult.SKIPPED, null,
+                                        "Not booked because another occurrence conflicts")
+                                : new BookingResult(rdv.getDateTime(), BookingResult.BOOKED, rdv.getId(), null));
+                    }
+                }
+                return outcome;
+            });
+            saved.forEach(this::index);
+            return results;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void cancel(UUID id) {
+        Indexed indexed = bookings.get(id);
+        if (indexed != null) {
+            withDoctorLocks(indexed.doctorId(), indexed.doctorId(), () -> unindex(id));
+        }
+    }
+
+    /** Replaces what this instance knows about the appointment with the given row. */
+    public void refresh(RendezVous rdv) {
+        if (rdv.getId() == null) {
+            return;
+        }
+        Indexed indexed = bookings.get(rdv.getId());
+        withDoctorLocks(indexed != null ? indexed.doctorId() : null, rdv.getDoctorId(), () -> index(rdv));
+    }
+
+    /**
+     * Free windows of at least {@code durationMinutes} for the doctor in [from, to).
+     * Served from the in-memory calendar inside the horizon, from the database otherwise.
+     */
+    public List<TimeSlot> findFreeSlots(UUID doctorId, LocalDateTime from, LocalDateTime to, int durationMinutes) {
+        long fromMinute = DoctorCalendar.toEpochMinute(from);
+        DoctorCalendar calendar;
+        if (fromMinute >= horizonStart) {
+            calendar = calendars.getOrDefault(doctorId, EMPTY_CALENDAR);
+        } else {
+            calendar = new DoctorCalendar();
+            rdvRepo.findByDoctorIdAndDateTimeBetweenAndStatusNot(doctorId, from.minusDays(1), to, "CANCELED")
+                    .forEach(rdv -> calendar.add(toBooking(rdv)));
+        }
+
+        long[] slots = calendar.freeSlots(fromMinute, DoctorCalendar.toEpochMinute(to), durationMinutes);
+        List<TimeSlot> result = new ArrayList<>(slots.length / 2);
+        for (int i = 0; i < slots.length; i += 2) {
+            result.add(new TimeSlot(DoctorCalendar.fromEpochMinute(slots[i]),
+                    DoctorCalendar.fromEpochMinute(slots[i + 1])));
+        }
+        return result;
+    }
+
+    private boolean overlapsInMemory(RendezVous rdv) {
+        long start = DoctorCalendar.toEpochMinute(rdv.getDateTime());
+        if (start < horizonStart) {
+            return false;
+        }
+        DoctorCalendar calendar = calendars.get(rdv.getDoctorId());
+        return calendar != null && calendar.overlaps(start, DoctorCalendar.toEpochMinute(rdv.getEndDateTime()),
+                rdv.getId() != null ? rdv.getId() : NO_ID);
+    }
+
+    // existing.start < new.end && existing.end > new.start, read under the doctor's lock row
+    private boolean overlapsInDatabase(RendezVous rdv) {
+        return rdvRepo.hasOverlappingAppointments(rdv.getDoctorId(), rdv.getDateTime(), rdv.getEndDateTime(),
+                rdv.getDateTime().minusMinutes(RendezVous.DEFAULT_DURATION_MINUTES),
+                rdv.getId() != null ? rdv.getId() : NO_ID);
+    }
+
+    // Fills in the default end; returns why the appointment cannot be booked, or null
+    private static String validate(RendezVous rdv) {
+        if (rdv.getDateTime() == null) {
+            return "Appointment date is required";
+        }
+        if (rdv.getEndDateTime() == null) {
+            rdv.setEndDateTime(rdv.getDateTime().plusMinutes(RendezVous.DEFAULT_DURATION_MINUTES));
+        }
+        if (!rdv.getEndDateTime().isAfter(rdv.getDateTime())) {
+            return "Appointment must end after it starts";
+        }
+        return null;
+    }
+
+    // The doctor's appointments that can collide with the series (none is longer than a day)
+    private DoctorCalendar loadCalendar(UUID doctorId, List<RendezVous> series) {
+        DoctorCalendar calendar = new DoctorCalendar();
+        List<RendezVous> valid = series.stream().filter(rdv -> validate(rdv) == null).toList();
+        if (valid.isEmpty()) {
+            return calendar;
+        }
+        LocalDateTime from = valid.stream().map(RendezVous::getDateTime).min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime to = valid.stream().map(RendezVous::getEndDateTime).max(LocalDateTime::compareTo).orElseThrow();
+        rdvRepo.findActiveStartingBetween(doctorId, from.minusDays(1), to).forEach(rdv -> calendar.add(toBooking(rdv)));
+        return calendar;
+    }
+
+    /**
+     * Lock rows are never deleted, so each doctor's row is created once, in its own
+     * transaction before any booking transaction locks it.
+     */
+    private void ensureLockRow(UUID doctorId) {
+        if (lockRows.contains(doctorId)) {
+            return;
+        }
+        if (!bookingLocks.existsById(doctorId)) {
+            try {
+                newTransaction.executeWithoutResult(status -> bookingLocks.saveAndFlush(new DoctorBookingLock(doctorId)));
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created it first
+            }
+        }
+        lockRows.add(doctorId);
+    }
+
+    // Replaces the id's booking; the swap runs inside compute, so concurrent updates of one id cannot orphan one
+    private void index(RendezVous rdv) {
+        if (rdv.getId() == null) {
+            return;
+        }
+        boolean indexable = rdv.getDoctorId() != null && rdv.getDateTime() != null
+                && !"CANCELED".equalsIgnoreCase(rdv.getStatus());
+        bookings.compute(rdv.getId(), (id, previous) -> {
+            removeFromCalendar(previous);
+            if (!indexable) {
+                return null;
+            }
+            DoctorCalendar.Booking booking = toBooking(rdv);
+            calendars.computeIfAbsent(rdv.getDoctorId(), doctorId -> new DoctorCalendar()).add(booking);
+            return new Indexed(rdv.getDoctorId(), booking);
+        });
+    }
+
+    private static DoctorCalendar.Booking toBooking(RendezVous rdv) {
+        LocalDateTime end = rdv.getEndDateTime() != null ? rdv.getEndDateTime()
+                : rdv.getDateTime().plusMinutes(RendezVous.DEFAULT_DURATION_MINUTES);
+        return new DoctorCalendar.Booking(rdv.getId(),
+                DoctorCalendar.toEpochMinute(rdv.getDateTime()), DoctorCalendar.toEpochMinute(end));
+    }
+
+    private void unindex(UUID id) {
+        bookings.computeIfPresent(id, (key, previous) -> {
+            removeFromCalendar(previous);
+            return null;
+        });
+    }
+
+    private void removeFromCalendar(Indexed indexed) {
+        if (indexed != null) {
+            calendars.getOrDefault(indexed.doctorId(), EMPTY_CALENDAR).remove(indexed.booking());
+        }
+    }
+
+    // Serializes index updates from the change stream with book(), taking stripes in index order
+    private void withDoctorLocks(UUID first, UUID second, Runnable action) {
+        int a = first != null ? stripeOf(first) : second != null ? stripeOf(second) : -1;
+        int b = second != null ? stripeOf(second) : a;
+        if (a < 0) {
+            action.run();
+            return;
+        }
+        ReentrantLock lower = stripes[Math.min(a, b)];
+        ReentrantLock upper = stripes[Math.max(a, b)];
+        lower.lock();
+        upper.lock();
+        try {
+            action.run();
+        } finally {
+            upper.unlock();
+            lower.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(UUID doctorId) {
+        return stripes[stripeOf(doctorId)];
+    }
+
+    private static int stripeOf(UUID doctorId) {
+        return Math.floorMod(doctorId.hashCode(), LOCK_STRIPES);
+    }
+
+    private static ReentrantLock[] createStripes() {
+        ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+}
@@ -1,16 +1,35 @@
 package com.medical.rdv_service.web;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.medical.common.events.DomainEvent;
+import com.medical.common.web.ETags;
+import com.medical.common.web.MergePatch;
+import com.medical.common.web.NdjsonStreams;
 import com.medical.rdv_service.clients.AuthServiceClient;
+import com.medical.rdv_service.dto.RecurringBookingRequest;
 import com.medical.rdv_service.entities.RendezVous;
 import com.medical.rdv_service.services.RdvService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.UnaryOperator;
 
 @RestController
 @RefreshScope
@@ -20,6 +39,11 @@ public class RdvController {
 
     private final RdvService rdvService;
     private final AuthServiceClient authServiceClient;
+    private final NdjsonStreams ndjsonStreams;
+    private final ETags eTags;
+    private final MergePatch mergePatch;
+
+    private static final int MAX_PAGE_SIZE = 500;
 
     @GetMapping("/{id}")
     public ResponseEntity<?> getRdv(@PathVariable UUID id,
@@ -34,14 +58,103 @@ public class RdvController {
         return ResponseEntity.ok(rdv);
     }
 
+    // Bulk lookup used by other services to resolve many appointments in one call
+    @PostMapping("/lookup")
+    public ResponseEntity<?> lookup(@RequestBody Set<UUID> ids) {
+        if (ids.size() > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("At most " + MAX_PAGE_SIZE + " ids per request");
+        }
+        return ResponseEntity.ok(rdvService.getRdvs(ids));
+    }
+
     @GetMapping
-    public List<RendezVous> getAll() {
-        return rdvService.getAllRdvs();
+    public ResponseEntity<List<RendezVous>> getAll(@RequestParam(required = false) UUID after,
+            @RequestParam(required = false) Integer limit) {
+        if (limit == null) {
+            return ResponseEntity.ok(rdvService.getAllRdvs());
+        }
+        // Keyset page: pass the id of the last appointment received as ?after= to get the next one
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<RendezVous> rdvs = rdvService.getPage(after, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (rdvs.size() == pageSize) {
+            response.header("X-Next-After", rdvs.get(rdvs.size() - 1).getId().toString());
+        }
+        return response.body(rdvs);
+    }
+
+    @GetMapping(value = "/stream", produces = NdjsonStreams.NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonStreams.NDJSON))
+                .body(ndjsonStreams.body(rdvService::streamAll));
+    }
+
+    // Compact (id, status) snapshot that other services keep as a local appointment index
+    @GetMapping(value = "/index", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> indexSnapshot() {
+        // Read before the snapshot: replaying the change stream from here covers anything the snapshot missed
+        long position = rdvService.getLatestEventPosition();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header("X-Event-Position", Long.toString(position))
+                .body(rdvService::writeIndexSnapshot);
+    }
+
+    // Change stream over the outbox: pass the sequence of the last event received as ?after=
+    @GetMapping("/events")
+    public List<DomainEvent> getEvents(@RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "500") int limit) {
+        return rdvService.getEventsAfter(after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
     }
 
     @GetMapping("/doctor/{doctorId}/upcoming")
-    public List<RendezVous> getUpcomingAppointments(@PathVariable UUID doctorId) {
-        return rdvService.getUpcomingAppointments(doctorId);
+    public ResponseEntity<?> getUpcomingAppointments(@PathVariable UUID doctorId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return eTags.conditional(rdvService.getUpcomingAppointments(doctorId), ifNoneMatch);
+    }
+
+    @GetMapping("/doctor/{doctorId}/agenda")
+    public List<RendezVous> getDayAgenda(@PathVariable UUID doctorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return rdvService.getDayAgenda(doctorId, date != null ? date : LocalDate.now());
+    }
+
+    @GetMapping("/doctor/{doctorId}/agenda/next")
+    public List<RendezVous> getNextAppointments(@PathVariable UUID doctorId,
+            @RequestParam(defaultValue = "10") int limit) {
+        return rdvService.getNextAppointments(doctorId, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    // Appointments per day for a month, e.g. ?month=2025-03 (defaults to the current month)
+    @GetMapping("/doctor/{doctorId}/agenda/counts")
+    public Map<LocalDate, Integer> getMonthCounts(@PathVariable UUID doctorId,
+            @RequestParam(required = false) YearMonth month) {
+        return rdvService.getMonthCounts(doctorId, month != null ? month : YearMonth.now());
+    }
+
+    @GetMapping("/doctor/{doctorId}/availability")
+    public ResponseEntity<?> getAvailability(@PathVariable UUID doctorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "30") int duration) {
+        try {
+            return ResponseEntity.ok(rdvService.getAvailability(List.of(doctorId), from, to, duration).get(doctorId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<?> getAvailabilityForDoctors(@RequestParam List<UUID> doctorIds,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "30") int duration) {
+        try {
+            return ResponseEntity.ok(rdvService.getAvailability(doctorIds, from, to, duration));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @PostMapping
@@ -60,14 +173,67 @@ public class RdvController {
 
         try {
             return ResponseEntity.ok(rdvService.save(rdv));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         }
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> saveSeries(@RequestBody RecurringBookingRequest request,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        if (!"PATIENT".equalsIgnoreCase(role) && !"DOCTOR".equalsIgnoreCase(role)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Only Patients or Doctors can create appointments");
+        }
+        try {
+            return ResponseEntity.ok(rdvService.saveSeries(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Full replacement of the schedule fields; send the version you read to detect lost updates
     @PutMapping("/{id}")
     public ResponseEntity<?> update(@PathVariable UUID id, @RequestBody RendezVous rdv) {
-        return ResponseEntity.ok(rdvService.update(id, rdv));
+        return change(id, rdv.getVersion(), current -> {
+            current.setDateTime(rdv.getDateTime());
+            current.setEndDateTime(rdv.getEndDateTime());
+            current.setPatientId(rdv.getPatientId());
+            current.setDoctorId(rdv.getDoctorId());
+            if (rdv.getStatus() != null) {
+                current.setStatus(rdv.getStatus());
+            }
+            return current;
+        });
+    }
+
+    @PatchMapping(value = "/{id}", consumes = { MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<?> patch(@PathVariable UUID id, @RequestBody JsonNode patch) {
+        return change(id, MergePatch.expectedVersion(patch), current -> {
+            LocalDateTime start = current.getDateTime();
+            LocalDateTime end = current.getEndDateTime();
+            mergePatch.apply(current, patch, "createdAt");
+            // Moving the start alone keeps the appointment's length
+            if (!patch.has("endDateTime") && start != null && end != null && current.getDateTime() != null) {
+                current.setEndDateTime(current.getDateTime().plus(Duration.between(start, end)));
+            }
+            return current;
+        });
+    }
+
+    private ResponseEntity<?> change(UUID id, Long expectedVersion, UnaryOperator<RendezVous> edit) {
+        try {
+            return ResponseEntity.ok(rdvService.update(id, expectedVersion, edit));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Appointment was modified by someone else, reload and retry");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
     }
 
     @DeleteMapping("/{id}")
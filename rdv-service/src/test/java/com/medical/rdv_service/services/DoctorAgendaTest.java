@@ -0,0 +1,130 @@
+package com.medical.rdv_service.services;
+
+import com.medical.rdv_service.entities.RendezVous;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoctorAgendaTest {
+
+    private static final UUID DOCTOR = UUID.randomUUID();
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2030, 1, 7, 0, 0);
+    private static final long MONDAY_DAY = DoctorCalendar.toEpochMinute(MONDAY) / DoctorAgenda.MINUTES_PER_DAY;
+
+    private final DoctorAgenda agenda = new DoctorAgenda();
+
+    @Test
+    void listsUpcomingAppointmentsInStartOrder() {
+        DoctorAgenda.Entry late = entry(MONDAY.plusHours(15));
+        DoctorAgenda.Entry early = entry(MONDAY.plusHours(9));
+        DoctorAgenda.Entry tomorrow = entry(MONDAY.plusDays(1).plusHours(8));
+        agenda.add(late);
+        agenda.add(tomorrow);
+        agenda.add(early);
+
+        assertEquals(List.of(early, late, tomorrow), agenda.next(minute(MONDAY), 10));
+        assertEquals(List.of(early, late), agenda.next(minute(MONDAY), 2));
+        assertEquals(List.of(late, tomorrow), agenda.next(minute(MONDAY.plusHours(9).plusMinutes(1)), 10));
+    }
+
+    @Test
+    void keepsAppointmentsSharingAStartMinute() {
+        DoctorAgenda.Entry first = entry(MONDAY.plusHours(9));
+        DoctorAgenda.Entry second = entry(MONDAY.plusHours(9));
+        agenda.add(first);
+        agenda.add(second);
+
+        assertEquals(2, agenda.between(minute(MONDAY.plusHours(9)), minute(MONDAY.plusHours(10))).size());
+        assertEquals(Map.of(MONDAY_DAY, 2), agenda.countsByDay(MONDAY_DAY, MONDAY_DAY + 1));
+    }
+
+    @Test
+    void betweenExcludesTheEndMinute() {
+        DoctorAgenda.Entry nine = entry(MONDAY.plusHours(9));
+        DoctorAgenda.Entry ten = entry(MONDAY.plusHours(10));
+        agenda.add(nine);
+        agenda.add(ten);
+
+        assertEquals(List.of(nine), agenda.between(minute(MONDAY.plusHours(9)), minute(MONDAY.plusHours(10))));
+    }
+
+    @Test
+    void countsPerDayFollowAddsAndRemoves() {
+        DoctorAgenda.Entry monday = entry(MONDAY.plusHours(9));
+        DoctorAgenda.Entry tuesday = entry(MONDAY.plusDays(1).plusHours(9));
+        DoctorAgenda.Entry tuesdayLate = entry(MONDAY.plusDays(1).plusHours(17));
+        agenda.add(monday);
+        agenda.add(tuesday);
+        agenda.add(tuesdayLate);
+        agenda.add(tuesdayLate);
+
+        assertEquals(Map.of(MONDAY_DAY, 1, MONDAY_DAY + 1, 2), agenda.countsByDay(MONDAY_DAY, MONDAY_DAY + 7));
+
+        agenda.remove(monday);
+        agenda.remove(monday);
+        agenda.remove(tuesday);
+
+        assertEquals(Map.of(MONDAY_DAY + 1, 1), agenda.countsByDay(MONDAY_DAY, MONDAY_DAY + 7));
+        assertEquals(List.of(tuesdayLate), agenda.next(minute(MONDAY), 10));
+    }
+
+    @Test
+    void replacingAnEntryAtTheSameStartKeepsTheCount() {
+        RendezVous rdv = rdv(MONDAY.plusHours(9));
+        agenda.add(DoctorAgenda.Entry.of(rdv));
+        rdv.setStatus("DONE");
+        agenda.add(DoctorAgenda.Entry.of(rdv));
+
+        assertEquals("DONE", agenda.next(minute(MONDAY), 1).get(0).status());
+        assertEquals(Map.of(MONDAY_DAY, 1), agenda.countsByDay(MONDAY_DAY, MONDAY_DAY + 1));
+    }
+
+    @Test
+    void dropsAppointmentsThatStartedBeforeTheCutoff() {
+        DoctorAgenda.Entry lastWeek = entry(MONDAY.minusDays(7).plusHours(9));
+        DoctorAgenda.Entry monday = entry(MONDAY.plusHours(9));
+        agenda.add(lastWeek);
+        agenda.add(monday);
+
+        agenda.removeStartingBefore(minute(MONDAY));
+
+        assertEquals(List.of(monday), agenda.next(Long.MIN_VALUE, 10));
+        assertTrue(agenda.countsByDay(MONDAY_DAY - 7, MONDAY_DAY).isEmpty());
+    }
+
+    @Test
+    void entryRoundTripsToTheAppointment() {
+        RendezVous rdv = rdv(MONDAY.plusHours(9));
+
+        RendezVous copy = DoctorAgenda.Entry.of(rdv).toRendezVous();
+
+        assertEquals(rdv, copy);
+    }
+
+    private static long minute(LocalDateTime dateTime) {
+        return DoctorCalendar.toEpochMinute(dateTime);
+    }
+
+    private static DoctorAgenda.Entry entry(LocalDateTime start) {
+        return DoctorAgenda.Entry.of(rdv(start));
+    }
+
+    private static RendezVous rdv(LocalDateTime start) {
+        return RendezVous.builder()
+                .id(UUID.randomUUID())
+                .version(0L)
+                .doctorId(DOCTOR)
+                .patientId(UUID.randomUUID())
+                .dateTime(start)
+                .endDateTime(start.plusMinutes(RendezVous.DEFAULT_DURATION_MINUTES))
+                .status("PLANNED")
+                .createdAt(MONDAY.minusDays(30))
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.medical.rdv_service.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoctorCalendarTest {
+
+    private static final UUID NO_ID = new UUID(0L, 0L);
+
+    private final DoctorCalendar calendar = new DoctorCalendar();
+
+    @Test
+    void detectsOverlapsButNotTouchingIntervals() {
+        calendar.add(booking(600, 630));
+
+        assertTrue(calendar.overlaps(615, 645, NO_ID));
+        assertTrue(calendar.overlaps(590, 610, NO_ID));
+        assertTrue(calendar.overlaps(610, 620, NO_ID));
+        assertTrue(calendar.overlaps(500, 700, NO_ID));
+        assertFalse(calendar.overlaps(630, 660, NO_ID));
+        assertFalse(calendar.overlaps(570, 600, NO_ID));
+    }
+
+    @Test
+    void findsLongBookingThatStartedWellBeforeTheCandidate() {
+        calendar.add(booking(600, 900));
+        calendar.add(booking(590, 600));
+
+        assertTrue(calendar.overlaps(840, 870, NO_ID));
+        assertFalse(calendar.overlaps(900, 930, NO_ID));
+    }
+
+    @Test
+    void keepsBookingsThatShareAStartMinute() {
+        DoctorCalendar.Booking first = booking(600, 630);
+        DoctorCalendar.Booking second = booking(600, 660);
+        calendar.add(first);
+        calendar.add(second);
+
+        calendar.remove(first);
+
+        assertTrue(calendar.overlaps(640, 650, NO_ID));
+        calendar.remove(second);
+        assertTrue(calendar.isEmpty());
+    }
+
+    @Test
+    void ignoresTheBookingBeingMoved() {
+        DoctorCalendar.Booking booking = booking(600, 630);
+        calendar.add(booking);
+
+        assertFalse(calendar.overlaps(610, 640, booking.id()));
+        assertTrue(calendar.overlaps(610, 640, UUID.randomUUID()));
+    }
+
+    @Test
+    void freeSlotsSkipBookedIntervals() {
+        calendar.add(booking(540, 600));
+        calendar.add(booking(660, 690));
+
+        long[] slots = calendar.freeSlots(480, 720, 30);
+
+        assertArrayEquals(new long[] { 480, 540, 600, 660, 690, 720 }, slots);
+    }
+
+    @Test
+    void freeSlotsStartAfterABookingRunningIntoTheWindow() {
+        calendar.add(booking(420, 510));
+
+        assertArrayEquals(new long[] { 510, 600 }, calendar.freeSlots(480, 600, 30));
+        assertArrayEquals(new long[0], calendar.freeSlots(480, 530, 30));
+    }
+
+    @Test
+    void removeEndingBeforeKeepsBookingsStillRunning() {
+        calendar.add(booking(100, 200));
+        calendar.add(booking(150, 400));
+
+        calendar.removeEndingBefore(300);
+
+        assertFalse(calendar.overlaps(100, 140, NO_ID));
+        assertTrue(calendar.overlaps(350, 360, NO_ID));
+    }
+
+    @Test
+    void epochMinutesRoundTrip() {
+        LocalDateTime dateTime = LocalDateTime.of(2026, 3, 1, 9, 30);
+
+        long minute = DoctorCalendar.toEpochMinute(dateTime);
+
+        assertEquals(dateTime, DoctorCalendar.fromEpochMinute(minute));
+        assertEquals(30, DoctorCalendar.toEpochMinute(dateTime.plusMinutes(30)) - minute);
+    }
+
+    private static DoctorCalendar.Booking booking(long start, long end) {
+        return new DoctorCalendar.Booking(UUID.randomUUID(), start, end);
+    }
+}
@@ -0,0 +1,130 @@
+package com.medical.rdv_service.services;
+
+import com.medical.rdv_service.dto.BookingResult;
+import com.medical.rdv_service.entities.RendezVous;
+import com.medical.rdv_service.repositories.DoctorBookingLockRepository;
+import com.medical.rdv_service.repositories.RendezVousRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SchedulingEngineTest {
+
+    private static final UUID DOCTOR = UUID.randomUUID();
+    private static final LocalDateTime NINE = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+    private RendezVousRepository rdvRepo;
+    private DoctorBookingLockRepository bookingLocks;
+    private SchedulingEngine engine;
+    private final List<RendezVous> persisted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        rdvRepo = mock(RendezVousRepository.class);
+        bookingLocks = mock(DoctorBookingLockRepository.class);
+        engine = new SchedulingEngine(rdvRepo, bookingLocks, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void bookRejectsAnAppointmentWithoutDateAsInvalid() {
+        RendezVous rdv = rdv(null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> engine.book(rdv, this::persist));
+        assertTrue(persisted.isEmpty());
+    }
+
+    @Test
+    void bookRejectsAnAppointmentEndingBeforeItStarts() {
+        RendezVous rdv = rdv(NINE, NINE.minusMinutes(10));
+
+        assertThrows(IllegalArgumentException.class, () -> engine.book(rdv, this::persist));
+        assertTrue(persisted.isEmpty());
+    }
+
+    @Test
+    void bookFillsInTheDefaultDuration() {
+        RendezVous saved = engine.book(rdv(NINE, null), this::persist);
+
+        assertEquals(NINE.plusMinutes(RendezVous.DEFAULT_DURATION_MINUTES), saved.getEndDateTime());
+        verify(bookingLocks).lock(DOCTOR);
+    }
+
+    @Test
+    void bookRejectsAnOverlapFoundInTheDatabase() {
+        when(rdvRepo.hasOverlappingAppointments(eq(DOCTOR), any(), any(), any(), any())).thenReturn(true);
+
+        assertThrows(RuntimeException.class, () -> engine.book(rdv(NINE, NINE.plusMinutes(30)), this::persist));
+        assertTrue(persisted.isEmpty());
+    }
+
+    @Test
+    void bookAllReportsInvalidOccurrencesAndBooksTheRest() {
+        List<RendezVous> series = List.of(
+                rdv(NINE, NINE.plusMinutes(30)),
+                rdv(null, null),
+                rdv(NINE.plusDays(1), NINE.plusDays(1).minusMinutes(5)));
+
+        List<BookingResult> results = engine.bookAll(DOCTOR, series, false, this::persistAll);
+
+        assertEquals(List.of(BookingResult.BOOKED, BookingResult.INVALID, BookingResult.INVALID), outcomes(results));
+        assertEquals(1, persisted.size());
+        assertEquals(persisted.get(0).getId(), results.get(0).id());
+    }
+
+    @Test
+    void bookAllRejectsOccurrencesOverlappingEachOther() {
+        List<RendezVous> series = List.of(rdv(NINE, NINE.plusMinutes(30)), rdv(NINE.plusMinutes(15), null));
+
+        List<BookingResult> results = engine.bookAll(DOCTOR, series, false, this::persistAll);
+
+        assertEquals(List.of(BookingResult.BOOKED, BookingResult.CONFLICT), outcomes(results));
+    }
+
+    @Test
+    void atomicBookAllSavesNothingWhenOneOccurrenceConflicts() {
+        RendezVous existing = rdv(NINE.plusDays(7), NINE.plusDays(7).plusMinutes(60));
+        existing.setId(UUID.randomUUID());
+        when(rdvRepo.findActiveStartingBetween(eq(DOCTOR), any(), any())).thenReturn(List.of(existing));
+        List<RendezVous> series = List.of(
+                rdv(NINE, NINE.plusMinutes(30)),
+                rdv(NINE.plusDays(7).plusMinutes(30), NINE.plusDays(7).plusMinutes(60)));
+
+        List<BookingResult> results = engine.bookAll(DOCTOR, series, true, this::persistAll);
+
+        assertEquals(List.of(BookingResult.SKIPPED, BookingResult.CONFLICT), outcomes(results));
+        assertTrue(persisted.isEmpty());
+    }
+
+    private RendezVous persist(RendezVous rdv) {
+        rdv.setId(UUID.randomUUID());
+        persisted.add(rdv);
+        return rdv;
+    }
+
+    private List<RendezVous> persistAll(List<RendezVous> rdvs) {
+        return rdvs.stream().map(this::persist).toList();
+    }
+
+    private static List<String> outcomes(List<BookingResult> results) {
+        return results.stream().map(BookingResult::outcome).toList();
+    }
+
+    private static RendezVous rdv(LocalDateTime start, LocalDateTime end) {
+        return RendezVous.builder().doctorId(DOCTOR).dateTime(start).endDateTime(end).build();
+    }
+}